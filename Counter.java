@@ -0,0 +1,43 @@
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A count that only goes up, such as the number of messages received. Any
+ * number of threads may count at once without slowing each other down.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class Counter implements LongSupplier {
+
+    /** The count, spread over cells so threads counting at once do not contend. */
+    private final LongAdder count = new LongAdder();
+
+    /** Adds one to the count. */
+    public void increment() {
+        this.count.increment();
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * @param amount The amount to add, which is not negative.
+     */
+    public void add(long amount) {
+        this.count.add(amount);
+    }
+
+    /**
+     * Gets the count.
+     *
+     * @return The count so far.
+     */
+    @Override
+    public long getAsLong() {
+        return this.count.sum();
+    }
+}
@@ -0,0 +1,49 @@
+import java.nio.ByteBuffer;
+
+/**
+ * An encoded message and the port it arrived on or is to be sent to, as passed
+ * between the threads that receive, decode and send messages.
+ *
+ * A datagram can be reused once it has been sent: its buffer is cleared and
+ * filled with the next message, so a stage passing messages along does not have
+ * to allocate for each one.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class Datagram {
+
+    /** The port the message arrived on, or is to be sent to. */
+    int port;
+
+    /** The array holding the encoded message, which may be longer than it. */
+    final byte[] data;
+
+    /** The encoded message, from index 0 up to the buffer's limit. */
+    final ByteBuffer buffer;
+
+    /**
+     * Creates a new message.
+     *
+     * @param port The port the message arrived on, or is to be sent to.
+     * @param data The encoded message.
+     */
+    Datagram(int port, byte[] data) {
+        this.port = port;
+        this.data = data;
+        this.buffer = ByteBuffer.wrap(data);
+    }
+
+    /**
+     * Creates an empty message to be filled in later.
+     *
+     * @param capacity The length of the longest message it can hold.
+     */
+    Datagram(int capacity) {
+        this(-1, new byte[capacity]);
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps running totals of how well requests are being served: the average time
+ * passengers wait for an elevator, the average time they ride in it, the average
+ * journey from calling the elevator to arriving at their destination, and the
+ * percentage of waits that took longer than 30, 60 and 90 seconds. These are the
+ * measures dispatch policies are usually compared by.
+ *
+ * Only totals are kept, so any number of requests can be recorded in the same
+ * space. Any number of threads may record at once without taking a lock.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class DispatchStatistics {
+
+    /** The waiting times, in seconds, that long waits are counted against. */
+    private static final long[] LONG_WAIT_SECONDS = { 30, 60, 90 };
+
+    /** The number of requests recorded. */
+    private final AtomicLong count;
+
+    /** The total time passengers spent waiting, in milliseconds. */
+    private final AtomicLong totalWaiting;
+
+    /** The total time passengers spent riding, in milliseconds. */
+    private final AtomicLong totalRide;
+
+    /** The total time of the passengers' journeys, in milliseconds. */
+    private final AtomicLong totalJourney;
+
+    /** The number of waits longer than each of LONG_WAIT_SECONDS. */
+    private final AtomicLongArray longWaits;
+
+    /** Creates statistics with no requests recorded. */
+    public DispatchStatistics() {
+        this.count = new AtomicLong();
+        this.totalWaiting = new AtomicLong();
+        this.totalRide = new AtomicLong();
+        this.totalJourney = new AtomicLong();
+        this.longWaits = new AtomicLongArray(LONG_WAIT_SECONDS.length);
+    }
+
+    /**
+     * Records a request whose passengers have been dropped off.
+     *
+     * @param request The completed request.
+     */
+    public void record(RequestProgressWrapper request) {
+        long waiting = Math.max(0, request.getWaitingTime());
+        this.totalWaiting.addAndGet(waiting);
+        this.totalRide.addAndGet(Math.max(0, request.getRideTime()));
+        this.totalJourney.addAndGet(Math.max(0, request.getJourneyTime()));
+        for (int i = 0; i < LONG_WAIT_SECONDS.length; i++) {
+            if (waiting > LONG_WAIT_SECONDS[i] * 1000) {
+                this.longWaits.incrementAndGet(i);
+            }
+        }
+        this.count.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of requests recorded.
+     *
+     * @return The number of requests.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Gets the average time passengers waited, from calling the elevator to being
+     * picked up.
+     *
+     * @return The average waiting time in milliseconds, or 0 if there are no
+     *         requests.
+     */
+    public double getAverageWaitingTime() {
+        return average(this.totalWaiting.get());
+    }
+
+    /**
+     * Gets the average time passengers spent in the elevator, from being picked up
+     * to being dropped off.
+     *
+     * @return The average ride time in milliseconds, or 0 if there are no requests.
+     */
+    public double getAverageRideTime() {
+        return average(this.totalRide.get());
+    }
+
+    /**
+     * Gets the average journey, from calling the elevator to being dropped off.
+     *
+     * @return The average journey time in milliseconds, or 0 if there are no
+     *         requests.
+     */
+    public double getAverageJourneyTime() {
+        return average(this.totalJourney.get());
+    }
+
+    /**
+     * Gets the percentage of passengers who waited longer than a number of seconds.
+     *
+     * @param seconds 30, 60 or 90.
+     * @return The percentage of waits, or 0 if there are no requests.
+     * @throws IllegalArgumentException If waits of that length are not counted.
+     */
+    public double getPercentWaitsOver(long seconds) {
+        for (int i = 0; i < LONG_WAIT_SECONDS.length; i++) {
+            if (LONG_WAIT_SECONDS[i] == seconds) {
+                long count = this.count.get();
+                return count == 0 ? 0 : 100.0 * this.longWaits.get(i) / count;
+            }
+        }
+        throw new IllegalArgumentException("Waits over " + seconds + " s are not counted");
+    }
+
+    /**
+     * Describes the statistics in one line.
+     *
+     * @return The count, the average waiting, ride and journey times, and the
+     *         percentage of long waits.
+     */
+    @Override
+    public String toString() {
+        StringBuilder line = new StringBuilder(String.format("count=%d wait=%.1fs ride=%.1fs journey=%.1fs",
+                this.getCount(), this.getAverageWaitingTime() / 1000, this.getAverageRideTime() / 1000,
+                this.getAverageJourneyTime() / 1000));
+        for (long seconds : LONG_WAIT_SECONDS) {
+            line.append(String.format(" wait>%ds=%.1f%%", seconds, this.getPercentWaitsOver(seconds)));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Divides a total by the number of requests.
+     *
+     * @param total The total in milliseconds.
+     * @return The average, or 0 if there are no requests.
+     */
+    private double average(long total) {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) total / count;
+    }
+}
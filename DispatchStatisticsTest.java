@@ -0,0 +1,66 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the DispatchStatistics class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class DispatchStatisticsTest {
+
+    /**
+     * Makes a request that has been served.
+     *
+     * @param waitSeconds How long the passengers waited.
+     * @param rideSeconds How long they rode for.
+     * @return The completed request.
+     */
+    private static RequestProgressWrapper served(long waitSeconds, long rideSeconds) {
+        RequestProgressWrapper r = new RequestProgressWrapper(new ElevatorRequest(1, 2, 5, 1, 0, 5, 2, false), 1000,
+                2000);
+        r.updateProgress(2, 1000 + waitSeconds * 1000);
+        r.updateProgress(5, 1000 + (waitSeconds + rideSeconds) * 1000);
+        return r;
+    }
+
+    /**
+     * Tests that the averages are taken over every request recorded.
+     */
+    @Test
+    void testAverages() {
+        DispatchStatistics statistics = new DispatchStatistics();
+        assertEquals(0, statistics.getAverageWaitingTime());
+        assertEquals(0, statistics.getPercentWaitsOver(30));
+
+        statistics.record(served(10, 20));
+        statistics.record(served(30, 40));
+
+        assertEquals(2, statistics.getCount());
+        assertEquals(20_000, statistics.getAverageWaitingTime());
+        assertEquals(30_000, statistics.getAverageRideTime());
+        assertEquals(50_000, statistics.getAverageJourneyTime());
+    }
+
+    /**
+     * Tests that waits are only counted as long once they go over each limit.
+     */
+    @Test
+    void testLongWaits() {
+        DispatchStatistics statistics = new DispatchStatistics();
+        statistics.record(served(30, 5));
+        statistics.record(served(45, 5));
+        statistics.record(served(75, 5));
+        statistics.record(served(120, 5));
+
+        assertEquals(75, statistics.getPercentWaitsOver(30));
+        assertEquals(50, statistics.getPercentWaitsOver(60));
+        assertEquals(25, statistics.getPercentWaitsOver(90));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getPercentWaitsOver(45));
+    }
+}
@@ -1,10 +1,10 @@
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.TreeSet;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
 import java.io.*;
-import java.net.*;
+import java.nio.ByteBuffer;
 import java.util.Random;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 
 /**
@@ -22,6 +22,9 @@ public class Elevator implements Runnable {
     /** The maximum number of passengers that an elevator can hold. */
     public static final int CAPACITY_LIMIT = 5;
 
+    /** The log written to by every elevator. */
+    private static final Log LOG = Log.get("Elevator");
+
     /**
      * Counts the number of elevators that have been created.
      */
@@ -32,6 +35,12 @@ public class Elevator implements Runnable {
      */
     private static final int TIME_BETWEEN_FLOORS = 2000;
 
+    /** The time it takes to open the doors in milliseconds. */
+    private static final int TIME_TO_OPEN_DOORS = 1000;
+
+    /** The time it takes to close the doors in milliseconds. */
+    private static final int TIME_TO_CLOSE_DOORS = 2000;
+
     /**
      * The chances that the elevator will have a non-recoverable timer fault and
      * shut down.
@@ -61,23 +70,44 @@ public class Elevator implements Runnable {
     /**
      * The list of requests currently being handled by the Elevator.
      */
-    private ArrayList<RequestProgressWrapper> requests_in_progress;
+    private LinkedHashSet<RequestProgressWrapper> requests_in_progress;
 
-    /** The port this elevator uses to communicate over UDP. */
+    /** The requests waiting to be picked up, keyed by their origin floor. */
+    private TreeMap<Integer, ArrayList<RequestProgressWrapper>> pickups;
+
+    /** The requests on board waiting to be dropped off, keyed by their destination floor. */
+    private TreeMap<Integer, ArrayList<RequestProgressWrapper>> dropoffs;
+
+    /** The port this elevator uses to communicate. */
     private int port;
 
-    /** Socket used to both send and receive information */
-    private DatagramSocket channel;
+    /** Transport used to both send and receive information */
+    private Transport channel;
+
+    /** The port messages are sent to: the elevator subsystem, or the scheduler when nothing relays them. */
+    private int upstreamPort;
 
     /** The direction that the elevator is currently moving in. */
     private Direction direction;
 
-    /** The length of the buffer for receiving UDP packets in bytes. */
+    /** The length of the buffer for receiving messages in bytes. */
     private static final int BUFFER_LEN = 100;
 
+    /** The buffer for receiving messages, reused for every message. */
+    private ByteBuffer buffer;
+
     /** The random number generator for creating faults. */
     private Random number_gen;
 
+    /** Whether random timer and door faults can occur. */
+    private boolean faults;
+
+    /**
+     * Receives the elevator's outgoing messages when it runs without a transport,
+     * or null when messages are sent through the transport.
+     */
+    private final Consumer<ElevatorRequest> outbox;
+
     /**
      * The status of the door represented as an Object.
      * 1: The door is open.
@@ -88,62 +118,136 @@ public class Elevator implements Runnable {
     private int door;
 
 
-    // Declare variables to hold the start and end times
-    private long startTime;
-    private long endTime;
+    /** The clock used to pace elevator movement and door operation. */
+    private final SimulationClock clock;
+
+    /** How long each request took, from the hall call to being dropped off. */
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /** How long each request took on every elevator in the process. */
+    private static final LatencyHistogram ALL_LATENCIES = new LatencyHistogram();
+
+    /** How long passengers waited and rode for on this elevator. */
+    private final DispatchStatistics dispatch = new DispatchStatistics();
+
+    /** How long passengers waited and rode for on every elevator in the process. */
+    private static final DispatchStatistics ALL_DISPATCH = new DispatchStatistics();
+
+    /** Places the hall calls of requests received over the network on the clock, for every elevator in the process. */
+    private static final TraceTimeline TRACE_TIMELINE = new TraceTimeline();
 
 
     /**
-     * Constructs a new elevator.
+     * Constructs a new elevator paced by the process's simulation clock.
      *
      * @param port The port at which we will be communicating to the elevator
      *                   with.
      */
-    public Elevator(int port) throws SocketException {
+    public Elevator(int port) throws IOException {
+        this(port, SimulationClock.SYSTEM);
+    }
 
-        // Construct a datagram socket and bind it to the port passed in the constructor
+    /**
+     * Constructs a new elevator.
+     *
+     * @param port  The port at which we will be communicating to the elevator
+     *              with.
+     * @param clock The clock used to pace the elevator.
+     */
+    public Elevator(int port, SimulationClock clock) throws IOException {
+
+        // Open a transport and bind it to the port passed in the constructor
         this.port = port;
-        this.channel = new DatagramSocket(port);
+        this.channel = Transport.open(port);
+        this.buffer = ByteBuffer.allocate(BUFFER_LEN);
+        this.upstreamPort = ElevatorSubsystem.isDirectRouting() ? Scheduler.ELEVATOR_PORT : ElevatorSubsystem.PORT;
 
         this.id = ELEVATOR_COUNT;
         this.floor = FloorSubsystem.GROUND_FLOOR; // Assume all elevators start on the ground floor
         this.direction = Direction.Up; // Can only move since on ground floor
         this.state = ElevatorState.Idle; // Elevators start in the idle state
         this.number_gen = new Random();
-        this.requests_in_progress = new ArrayList<>();
+        this.requests_in_progress = new LinkedHashSet<>();
+        this.pickups = new TreeMap<>();
+        this.dropoffs = new TreeMap<>();
         this.door = 0;
+        this.faults = true;
+        this.clock = clock;
+        this.outbox = null;
         ELEVATOR_COUNT++;
     }
 
-
-    // Method to start the timer
-    private void startTimer() {
-        startTime = System.nanoTime();
+    /**
+     * Constructs a new elevator that talks through a transport it is given, such
+     * as an endpoint of a multiplexer shared with the other elevators. Its
+     * messages are sent straight to the scheduler.
+     *
+     * @param id      The unique identifier of this elevator.
+     * @param channel The transport the elevator sends and receives through.
+     * @param clock   The clock used to pace the elevator.
+     */
+    public Elevator(int id, Transport channel, SimulationClock clock) {
+        this.port = -1;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_LEN);
+        this.upstreamPort = Scheduler.ELEVATOR_PORT;
+        this.id = id;
+        this.floor = FloorSubsystem.GROUND_FLOOR;
+        this.direction = Direction.Up;
+        this.state = ElevatorState.Idle;
+        this.number_gen = new Random();
+        this.requests_in_progress = new LinkedHashSet<>();
+        this.pickups = new TreeMap<>();
+        this.dropoffs = new TreeMap<>();
+        this.door = 0;
+        this.faults = true;
+        this.clock = clock;
+        this.outbox = null;
     }
 
-    // Method to stop the timer and print the elapsed time
-    private void stopTimer() {
-        endTime = System.nanoTime();
-        long elapsedTimeInMillis = TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
-        System.out.println("Time taken to process request: " + elapsedTimeInMillis + " milliseconds");
+    /**
+     * Constructs a new elevator that runs without a transport. Instead of being sent
+     * to the elevator subsystem, every outgoing message is handed to the outbox.
+     *
+     * @param id     The unique identifier of this elevator.
+     * @param clock  The clock used to pace the elevator.
+     * @param outbox Receives every message the elevator would have sent.
+     */
+    public Elevator(int id, SimulationClock clock, Consumer<ElevatorRequest> outbox) {
+        this.port = -1;
+        this.channel = null;
+        this.buffer = null;
+        this.upstreamPort = -1;
+        this.id = id;
+        this.floor = FloorSubsystem.GROUND_FLOOR;
+        this.direction = Direction.Up;
+        this.state = ElevatorState.Idle;
+        this.number_gen = new Random();
+        this.requests_in_progress = new LinkedHashSet<>();
+        this.pickups = new TreeMap<>();
+        this.dropoffs = new TreeMap<>();
+        this.door = 0;
+        this.faults = true;
+        this.clock = clock;
+        this.outbox = outbox;
     }
 
 
     /**
-     * Sends the elevator's current location to the elevator subsystem using UDP. The message
-     * includes the elevator's ID, current floor, door status, and the number of requests in progress.
-     * The elevator's current floor is used as both the origin and destination to signify its position.
+     * Sends a message to the elevator subsystem (or straight to the scheduler with
+     * direct routing) through the transport, or hands it to the outbox if the
+     * elevator is running without a transport.
+     *
+     * @param message The message to be sent.
      */
-    private void sendLocationUpdate() {
-        ElevatorRequest status = new ElevatorRequest(this.id, this.floor, this.floor, this.requests_in_progress.size(), this.door, 0, 0, false);
-        status.setDirection(this.direction);
-        byte[] status_b = status.getBytes();
-        DatagramPacket packet = new DatagramPacket(status_b, status_b.length);
-        packet.setPort(ElevatorSubsystem.PORT);
+    private void send(ElevatorRequest message) {
+        if (this.outbox != null) {
+            this.outbox.accept(message);
+            return;
+        }
 
         try {
-            packet.setAddress(InetAddress.getLocalHost());
-            this.channel.send(packet);
+            this.channel.send(ByteBuffer.wrap(message.getBytes()), this.upstreamPort);
         } catch (Exception e) {
             e.printStackTrace();
             System.exit(1);
@@ -151,7 +255,18 @@ public class Elevator implements Runnable {
     }
 
     /**
-     * Sends an update to the elevator subsystem using UDP when a request is processed. This message
+     * Sends the elevator's current location to the elevator subsystem. The message
+     * includes the elevator's ID, current floor, door status, and the number of requests in progress.
+     * The elevator's current floor is used as both the origin and destination to signify its position.
+     */
+    private void sendLocationUpdate() {
+        ElevatorRequest status = new ElevatorRequest(this.id, this.floor, this.floor, this.requests_in_progress.size(), this.door, 0, 0, false);
+        status.setDirection(this.direction);
+        this.send(status);
+    }
+
+    /**
+     * Sends an update to the elevator subsystem when a request is processed. This message
      * includes the elevator's ID, current floor, door status, number of requests in progress, and
      * details of the request being processed such as origin floor, destination floor, and completion status.
      *
@@ -162,17 +277,7 @@ public class Elevator implements Runnable {
     private void sendRequestUpdate(int originFloor, int destinationFloor, boolean complete){
         ElevatorRequest status = new ElevatorRequest(this.id, this.floor, this.floor, this.requests_in_progress.size(), this.door, destinationFloor, originFloor, complete);
         status.setDirection(this.direction);
-        byte[] status_b = status.getBytes();
-        DatagramPacket packet = new DatagramPacket(status_b, status_b.length);
-        packet.setPort(ElevatorSubsystem.PORT);
-
-        try {
-            packet.setAddress(InetAddress.getLocalHost());
-            this.channel.send(packet);
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
+        this.send(status);
     }
 
 
@@ -187,18 +292,9 @@ public class Elevator implements Runnable {
 
             // Mark each request as being incomplete due to a timer fault
             r.setTimerFault(true);
-            byte[] r_b = r.getBytes();
-            DatagramPacket packet = new DatagramPacket(r_b, r_b.length);
-            packet.setPort(ElevatorSubsystem.PORT);
 
             // Send request to elevator subsystem for routing
-            try {
-                packet.setAddress(InetAddress.getLocalHost());
-                this.channel.send(packet);
-            } catch (Exception e) {
-                e.printStackTrace();
-                System.exit(1);
-            }
+            this.send(r);
         }
     }
 
@@ -221,18 +317,20 @@ public class Elevator implements Runnable {
             case Direction.Down:
                 // Shut down elevator if it tries to go below the ground floor
                 if (this.floor - 1 < 1) {
-                    System.out.println("Elevator tried to go below ground floor.");
+                    LOG.warn("Elevator tried to go below ground floor.");
                     this.sendShutdownNotice();
                     return false;
                 }
                 this.floor--;
         }
 
-        System.out.println("Elevator #" + this.id + " moving from floor " + old_floor + " to " + this.floor);
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " moving from floor " + old_floor + " to " + this.floor);
+        }
 
-        // Sleep for 1 second to simulate movement
+        // Sleep to simulate movement
         try {
-            Thread.sleep(TIME_BETWEEN_FLOORS);
+            this.clock.sleep(TIME_BETWEEN_FLOORS);
         } catch (InterruptedException e) {
             e.printStackTrace();
             System.exit(1);
@@ -240,7 +338,7 @@ public class Elevator implements Runnable {
 
         // There is a chance of having a timer fault
         if (randomNumber <= CHANCE_OF_TIMER_FAULT) {
-            System.out.println("Elevator #" + this.id + " timer is stuck. Shutting down elevator...");
+            LOG.warn("Elevator #" + this.id + " timer is stuck. Shutting down elevator...");
             this.sendShutdownNotice();
             return false;
         }
@@ -253,7 +351,9 @@ public class Elevator implements Runnable {
      * Opens the elevator doors.
      */
     void openDoors(int randomNumber) {
-        System.out.println("Elevator #" + this.id + " opening doors.");
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " opening doors.");
+        }
 
         // If the doors is stuck closed, mark them as stuck closed and send the status to elevator subsystem.
         if(randomNumber <= CHANCE_OF_DOORS_STUCK){
@@ -263,18 +363,20 @@ public class Elevator implements Runnable {
 
         // There is a chance that the door is stuck closed
         while (randomNumber <= CHANCE_OF_DOORS_STUCK) {
-            System.out.println("Elevator #" + this.id + " door is stuck closed. Trying again...");
+            LOG.warn("Elevator #" + this.id + " door is stuck closed. Trying again...");
             // Keep generating a new random number until doors are opened
             randomNumber = this.nextRandomNum();
         }
 
         try {
-            Thread.sleep(1000);
+            this.clock.sleep(TIME_TO_OPEN_DOORS);
         } catch (InterruptedException e) {
             e.printStackTrace();
             System.exit(1);
         }
-        System.out.println("Elevator #" + this.id + " door opened");
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " door opened");
+        }
         this.door = 1;
     }
 
@@ -282,7 +384,9 @@ public class Elevator implements Runnable {
      * Closes the elevator doors.
      */
     void closeDoors(int randomNumber) {
-        System.out.println("Elevator #" + this.id + " closing doors.");
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " closing doors.");
+        }
 
         // If the doors is stuck opened, mark them as stuck opened and send the status to elevator subsystem.
         if(randomNumber <= CHANCE_OF_DOORS_STUCK){
@@ -292,19 +396,21 @@ public class Elevator implements Runnable {
 
         // There is a chance that the door is stuck open
         while (randomNumber <= CHANCE_OF_DOORS_STUCK) {
-            System.out.println("Elevator #" + this.id + " door is stuck open. Trying again...");
+            LOG.warn("Elevator #" + this.id + " door is stuck open. Trying again...");
             // Keep generating a new random number until doors are closed
             randomNumber = this.nextRandomNum();
         }
 
         try {
-            Thread.sleep(2000);
+            this.clock.sleep(TIME_TO_CLOSE_DOORS);
         } catch (InterruptedException e) {
             e.printStackTrace();
             System.exit(1);
         }
 
-        System.out.println("Elevator #" + this.id + " door closed");
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " door closed");
+        }
         this.door = 0;
 
     }
@@ -326,12 +432,24 @@ public class Elevator implements Runnable {
     /**
      * Returns the next random number in the stream.
      * 
-     * @return A random number between 1 and 100.
+     * @return A random number between 1 and 100, or 100 if faults are disabled.
      */
     int nextRandomNum() {
+        if (!this.faults) {
+            return 100; // Never low enough to cause a fault
+        }
         return number_gen.nextInt(100) + 1;
     }
 
+    /**
+     * Enables or disables random timer and door faults.
+     *
+     * @param enabled True if faults can occur, false otherwise.
+     */
+    void setFaultsEnabled(boolean enabled) {
+        this.faults = enabled;
+    }
+
     /**
      * Checks if there are still floors to visit in the elevator's current
      * direction.
@@ -340,26 +458,11 @@ public class Elevator implements Runnable {
      *         elevator is moving, false otherwise.
      */
     boolean floorsInDirection() {
-
-        for (RequestProgressWrapper r : this.requests_in_progress) {
-            switch (this.direction) {
-                case Direction.Up:
-                    if (this.floor < r.getRequest().getOriginFloor() && !r.wasPickedUp()) {
-                        return true;
-                    }
-                    if (this.floor < r.getRequest().getDestinationFloor() && (r.wasPickedUp() && !r.isComplete())) {
-                        return true;
-                    }
-                    break;
-                case Direction.Down:
-                    if (this.floor > r.getRequest().getOriginFloor() && !r.wasPickedUp()) {
-                        return true;
-                    }
-                    if (this.floor > r.getRequest().getDestinationFloor() && (r.wasPickedUp() && !r.isComplete())) {
-                        return true;
-                    }
-                    break;
-            }
+        switch (this.direction) {
+            case Direction.Up:
+                return this.pickups.higherKey(this.floor) != null || this.dropoffs.higherKey(this.floor) != null;
+            case Direction.Down:
+                return this.pickups.lowerKey(this.floor) != null || this.dropoffs.lowerKey(this.floor) != null;
         }
         return false;
     }
@@ -371,40 +474,65 @@ public class Elevator implements Runnable {
      */
     void updateRequests() {
 
-        // Update progress for all requests
-        for (RequestProgressWrapper r : this.requests_in_progress) {
-            r.updateProgress(this.floor);
-
-            // If the request is now complete, send the completion back to the floor
-            if (r.isComplete()) {
-                r.getRequest().markFinalComplete(true);
-                ElevatorRequest request = r.getRequest();
-
-                System.out.println("Elevator #" + this.id + " completed request " + r.getRequest());
-                stopTimer();
-                sendRequestUpdate(request.getInitialOriginFloor(), request.getFinalDestinationFloor(), request.isFinalComplete());
-
-                byte[] data = r.getRequest().getBytes();
-                DatagramPacket packet = new DatagramPacket(data, data.length);
-                packet.setPort(ElevatorSubsystem.PORT);
-                try {
-                    packet.setAddress(InetAddress.getLocalHost());
-                    this.channel.send(packet);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    System.exit(1);
+        // Pick up everyone waiting on this floor, who then wait for their destination
+        ArrayList<RequestProgressWrapper> boarding = this.pickups.remove(this.floor);
+        if (boarding != null) {
+            for (RequestProgressWrapper r : boarding) {
+                r.updateProgress(this.floor, this.clock.millis());
+                if (r.isComplete()) {
+                    this.complete(r); // Their destination was the floor they got on at
+                } else {
+                    addStop(this.dropoffs, r.getRequest().getDestinationFloor(), r);
                 }
             }
         }
 
-        // Remove all completed requests
-        for (Iterator<RequestProgressWrapper> it = this.requests_in_progress.iterator(); it.hasNext();) {
-            if (it.next().isComplete()) {
-                it.remove();
+        // Drop off everyone whose destination is this floor
+        ArrayList<RequestProgressWrapper> leaving = this.dropoffs.remove(this.floor);
+        if (leaving != null) {
+            for (RequestProgressWrapper r : leaving) {
+                r.updateProgress(this.floor, this.clock.millis());
+                this.complete(r);
             }
         }
     }
 
+    /**
+     * Sends the completion of a request back to the floor and stops tracking it.
+     *
+     * @param r The request that has been dropped off.
+     */
+    private void complete(RequestProgressWrapper r) {
+        r.getRequest().markFinalComplete(true);
+        ElevatorRequest request = r.getRequest();
+
+        // Record how long this request took, however many others were in progress
+        long latency = r.getJourneyTime();
+        this.latencies.record(latency);
+        ALL_LATENCIES.record(latency);
+        this.dispatch.record(r);
+        ALL_DISPATCH.record(r);
+
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " completed request " + r.getRequest() + " in " + latency + " ms");
+        }
+        sendRequestUpdate(request.getInitialOriginFloor(), request.getFinalDestinationFloor(), request.isFinalComplete());
+        this.send(request);
+        this.requests_in_progress.remove(r);
+    }
+
+    /**
+     * Adds a request to the stops for a floor.
+     *
+     * @param stops The pick-up or drop-off stops.
+     * @param floor The floor to stop at.
+     * @param r     The request that needs the stop.
+     */
+    private static void addStop(TreeMap<Integer, ArrayList<RequestProgressWrapper>> stops, int floor,
+            RequestProgressWrapper r) {
+        stops.computeIfAbsent(floor, f -> new ArrayList<>()).add(r);
+    }
+
     /**
      * Checks if the elevator is currently at a floor that needs to be stopped at.
      * 
@@ -413,20 +541,8 @@ public class Elevator implements Runnable {
      */
     boolean atStop() {
 
-        for (RequestProgressWrapper r : this.requests_in_progress) {
-
-            // This floor is the origin floor of a request who has not had a pick-up
-            if (this.floor == r.getRequest().getOriginFloor() && !r.wasPickedUp()) {
-                return true;
-            }
-
-            // This floor is the destination floor of a request who has not had a drop-off
-            if (this.floor == r.getRequest().getDestinationFloor() && (r.wasPickedUp() && !r.isComplete())) {
-                return true;
-            }
-        }
-
-        return false;
+        // This floor is the origin of a request not yet picked up, or the destination of one on board
+        return this.pickups.containsKey(this.floor) || this.dropoffs.containsKey(this.floor);
     }
 
     /**
@@ -436,70 +552,115 @@ public class Elevator implements Runnable {
         while (true) {
             switch (this.state) {
                 case ElevatorState.Idle:
-                    try {
-                        if (!this.requests_in_progress.isEmpty()) {
-                            channel.setSoTimeout(50);
-                        } else {
-                            channel.setSoTimeout(0);
-                        }
-                    } catch (SocketException e) {
-                        throw new RuntimeException(e);
+                    // Only wait briefly if there are requests to get back to
+                    long timeout = this.requests_in_progress.isEmpty() ? 0 : 50;
+                    if (LOG.isEnabled(LogLevel.Debug)) {
+                        LOG.debug("Elevator #" + this.id + " Waiting for new elevator request...");
                     }
-                    DatagramPacket new_packet = new DatagramPacket(new byte[BUFFER_LEN], BUFFER_LEN);
-                    System.out.println("Elevator #" + this.id + " Waiting for new elevator request...");
                     try {
-                        channel.receive(new_packet);
-                    } catch (SocketTimeoutException ignore) {
-                        this.state = ElevatorState.Moving;
-                        continue; // Skip to next iteration if we time out
+                        if (channel.receive(this.buffer, timeout) < 0) {
+                            this.state = ElevatorState.Moving;
+                            continue; // Skip to next iteration if we time out
+                        }
                     } catch (IOException e) {
                         e.printStackTrace();
                         System.exit(1);
                     }
-                    // Start the timer when a request is received
-                    startTimer();
                     try {
-                        ElevatorRequest new_request = new ElevatorRequest(new_packet.getData());
-                        System.out.println("Elevator #" + this.id + " got request " + new_request);
-                        this.requests_in_progress.add(new RequestProgressWrapper(new_request));
-                        sendRequestUpdate(new_request.getInitialOriginFloor(), new_request.getFinalDestinationFloor(), new_request.isFinalComplete());
+                        ElevatorRequest request = new ElevatorRequest(this.buffer.array());
+                        long now = this.clock.millis();
+                        this.accept(request, TRACE_TIMELINE.hallCallTime(request.getTimestamp().toNanoOfDay(), now));
                     } catch (UnsupportedEncodingException e) {
                         throw new RuntimeException(e);
                     }
                     break;
 
-                case ElevatorState.Moving:
-                    if (!this.floorsInDirection()) {
-                        this.toggleDirection();
-                    }
-                    if (!this.move(this.nextRandomNum())) {
-                        this.state = ElevatorState.Halted;
-                        break;
-                    }
-                    if (this.atStop()) {
-                        this.state = ElevatorState.DoorsOpen;
-                        break;
-                    }
-                    this.state = ElevatorState.Moving;
-                    break;
+                case ElevatorState.Halted:
+                    return; // Turn off the elevator
 
-                case ElevatorState.DoorsOpen:
-                    this.openDoors(this.nextRandomNum());
-                    this.state = ElevatorState.DoorsClosed;
-                    this.sendLocationUpdate();
+                default:
+                    this.step();
                     break;
+            }
+        }
+    }
 
-                case ElevatorState.DoorsClosed:
-                    this.closeDoors(this.nextRandomNum());
-                    this.updateRequests();
-                    // Stop the timer when request is complete
-                    this.state = ElevatorState.Idle;
-                    this.sendLocationUpdate();
+    /**
+     * Starts servicing a newly assigned request and acknowledges it to the
+     * scheduler, taking the passengers to have called the elevator just now.
+     *
+     * @param request The request assigned to this elevator.
+     */
+    void accept(ElevatorRequest request) {
+        this.accept(request, this.clock.millis());
+    }
+
+    /**
+     * Starts servicing a newly assigned request whose passengers called the
+     * elevator earlier, and acknowledges it to the scheduler.
+     *
+     * @param request      The request assigned to this elevator.
+     * @param hallCallTime The time the passengers called the elevator, in
+     *                     milliseconds on this elevator's clock.
+     */
+    void accept(ElevatorRequest request, long hallCallTime) {
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Elevator #" + this.id + " got request " + request);
+        }
+        RequestProgressWrapper r = new RequestProgressWrapper(request, hallCallTime, this.clock.millis());
+        this.requests_in_progress.add(r);
+        addStop(this.pickups, request.getOriginFloor(), r);
+        sendRequestUpdate(request.getInitialOriginFloor(), request.getFinalDestinationFloor(), request.isFinalComplete());
+    }
+
+    /**
+     * Leaves the idle state if there are requests waiting to be serviced.
+     *
+     * @return True if the elevator has work to do, false if it is idle or halted.
+     */
+    boolean wake() {
+        if (this.state == ElevatorState.Idle && !this.requests_in_progress.isEmpty()) {
+            this.state = ElevatorState.Moving;
+        }
+        return this.state != ElevatorState.Idle && this.state != ElevatorState.Halted;
+    }
+
+    /**
+     * Performs the work of the current moving or door state and transitions to the
+     * next state. Does nothing while the elevator is idle or halted.
+     */
+    void step() {
+        switch (this.state) {
+            case ElevatorState.Moving:
+                if (!this.floorsInDirection()) {
+                    this.toggleDirection();
+                }
+                if (!this.move(this.nextRandomNum())) {
+                    this.state = ElevatorState.Halted;
+                    break;
+                }
+                if (this.atStop()) {
+                    this.state = ElevatorState.DoorsOpen;
                     break;
+                }
+                this.state = ElevatorState.Moving;
+                break;
 
-                case ElevatorState.Halted:
-                    return; // Turn off the elevator
-            }
+            case ElevatorState.DoorsOpen:
+                this.openDoors(this.nextRandomNum());
+                this.state = ElevatorState.DoorsClosed;
+                this.sendLocationUpdate();
+                break;
+
+            case ElevatorState.DoorsClosed:
+                this.closeDoors(this.nextRandomNum());
+                this.updateRequests();
+                this.state = ElevatorState.Idle;
+                this.sendLocationUpdate();
+                break;
+
+            default:
+                break;
         }
     }
 
@@ -521,15 +682,64 @@ public class Elevator implements Runnable {
         return this.id;
     }
 
+    /**
+     * Gets how long each request this elevator completed took, from the
+     * passengers calling the elevator to being dropped off.
+     *
+     * @return The elevator's request latencies.
+     */
+    public LatencyHistogram getLatencies() {
+        return this.latencies;
+    }
+
+    /**
+     * Gets how long each request took on every elevator in the process.
+     *
+     * @return The request latencies of every elevator.
+     */
+    public static LatencyHistogram getAllLatencies() {
+        return ALL_LATENCIES;
+    }
+
+    /**
+     * Gets how long passengers waited for and rode in this elevator.
+     *
+     * @return The elevator's dispatch statistics.
+     */
+    public DispatchStatistics getDispatchStatistics() {
+        return this.dispatch;
+    }
+
+    /**
+     * Gets how long passengers waited and rode for on every elevator in the
+     * process.
+     *
+     * @return The dispatch statistics of every elevator.
+     */
+    public static DispatchStatistics getAllDispatchStatistics() {
+        return ALL_DISPATCH;
+    }
+
     /**
      * Gets the port number that this elevator uses to communicate.
      * 
-     * @return the port number that this elevator uses to communicate.
+     * @return the port number that this elevator uses to communicate, or -1 if it
+     *         does not have a port of its own.
      */
     public int getPort() {
         return this.port;
     }
 
+    /**
+     * Closes the elevator's transport, if it has one. The elevator must not be
+     * running.
+     */
+    public void close() throws IOException {
+        if (this.channel != null) {
+            this.channel.close();
+        }
+    }
+
     /**
      * Gets the current state of the elevator.
      * 
@@ -539,6 +749,16 @@ public class Elevator implements Runnable {
         return this.state;
     }
 
+    /**
+     * Gets the number of requests the elevator is servicing, which it reports to
+     * the scheduler as its riders.
+     *
+     * @return The number of requests in progress.
+     */
+    public int getRiders() {
+        return this.requests_in_progress.size();
+    }
+
     /**
      * Get the direction of the elevator.
      *
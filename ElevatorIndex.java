@@ -0,0 +1,127 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps the elevators that can take new requests sorted by floor, one map per
+ * direction, so the scheduler can find the nearest suitable elevator without
+ * looking at every elevator in the building. The index has to be told whenever
+ * an elevator's status record changes.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class ElevatorIndex {
+
+    /** The status record of each elevator, indexed by ID. */
+    private final ElevatorStatus[] statuses;
+
+    /** The available elevators going up, keyed by floor. */
+    private final TreeMap<Integer, TreeSet<Integer>> up;
+
+    /** The available elevators going down, keyed by floor. */
+    private final TreeMap<Integer, TreeSet<Integer>> down;
+
+    /** The elevators that have not shut down. */
+    private final TreeSet<Integer> inService;
+
+    /** The floor each elevator is filed under, or -1 if it is not available. */
+    private final int[] indexedFloor;
+
+    /** The direction each elevator is filed under. */
+    private final Direction[] indexedDirection;
+
+    /**
+     * Creates an index of the given elevators.
+     *
+     * @param statuses The status record of each elevator, indexed by ID. The index
+     *                 reads these records when it is told they have changed.
+     */
+    public ElevatorIndex(ElevatorStatus[] statuses) {
+        this.statuses = statuses;
+        this.up = new TreeMap<>();
+        this.down = new TreeMap<>();
+        this.inService = new TreeSet<>();
+        this.indexedFloor = new int[statuses.length];
+        this.indexedDirection = new Direction[statuses.length];
+        for (int i = 0; i < statuses.length; i++) {
+            this.indexedFloor[i] = -1;
+            this.update(i);
+        }
+    }
+
+    /**
+     * Re-files an elevator after its status record has changed.
+     *
+     * @param elevator The ID of the elevator.
+     */
+    public final void update(int elevator) {
+        ElevatorStatus status = this.statuses[elevator];
+
+        // Take the elevator out of wherever it was filed before
+        if (this.indexedFloor[elevator] >= 0) {
+            TreeMap<Integer, TreeSet<Integer>> map = this.indexedDirection[elevator] == Direction.Up ? this.up : this.down;
+            TreeSet<Integer> atFloor = map.get(this.indexedFloor[elevator]);
+            atFloor.remove(elevator);
+            if (atFloor.isEmpty()) {
+                map.remove(this.indexedFloor[elevator]);
+            }
+            this.indexedFloor[elevator] = -1;
+        }
+
+        if (status.isShutDown()) {
+            this.inService.remove(elevator);
+            return;
+        }
+        this.inService.add(elevator);
+
+        // Elevators at capacity cannot take anyone else
+        if (status.getRiders() >= Elevator.CAPACITY_LIMIT) {
+            return;
+        }
+        TreeMap<Integer, TreeSet<Integer>> map = status.getDirection() == Direction.Up ? this.up : this.down;
+        map.computeIfAbsent(status.getFloor(), f -> new TreeSet<>()).add(elevator);
+        this.indexedFloor[elevator] = status.getFloor();
+        this.indexedDirection[elevator] = status.getDirection();
+    }
+
+    /**
+     * Selects the nearest available elevator that is heading towards a floor. If
+     * there is none, the first elevator that has not shut down is chosen instead.
+     * Picks the same elevator as Scheduler.selectElevator.
+     *
+     * @param originFloor The floor the request was made from.
+     * @return The ID of the selected elevator to handle the request.
+     */
+    public int select(int originFloor) {
+
+        // The nearest elevator below going up, and the nearest elevator above going down
+        Map.Entry<Integer, TreeSet<Integer>> below = this.up.floorEntry(originFloor);
+        Map.Entry<Integer, TreeSet<Integer>> above = this.down.ceilingEntry(originFloor);
+
+        if (below != null && above != null) {
+            int belowDistance = originFloor - below.getKey();
+            int aboveDistance = above.getKey() - originFloor;
+            if (belowDistance != aboveDistance) {
+                return belowDistance < aboveDistance ? below.getValue().first() : above.getValue().first();
+            }
+            return Math.min(below.getValue().first(), above.getValue().first());
+        }
+        if (below != null) {
+            return below.getValue().first();
+        }
+        if (above != null) {
+            return above.getValue().first();
+        }
+
+        // Nobody is heading this way, so fall back to the first elevator still running
+        if (this.statuses.length == 0 || !this.statuses[0].isShutDown() || this.inService.isEmpty()) {
+            return 0;
+        }
+        return this.inService.first();
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the functionality of the ElevatorIndex class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class ElevatorIndexTest {
+
+    /**
+     * Creates status records for a number of elevators on the ground floor.
+     *
+     * @param count The number of elevators.
+     * @return The status records.
+     */
+    private static ElevatorStatus[] newStatuses(int count) {
+        ElevatorStatus[] statuses = new ElevatorStatus[count];
+        for (int i = 0; i < count; i++) {
+            statuses[i] = new ElevatorStatus();
+            statuses[i].setElevator(i);
+        }
+        return statuses;
+    }
+
+    /**
+     * Checks that the nearest elevator heading towards the floor is chosen, and
+     * that moves, full cars and shut downs are taken into account once the index
+     * is told about them.
+     */
+    @Test
+    void testSelectNearest() {
+        ElevatorStatus[] statuses = newStatuses(3);
+        ElevatorIndex index = new ElevatorIndex(statuses);
+
+        statuses[0].setFloor(2);
+        index.update(0);
+        statuses[1].setFloor(8);
+        statuses[1].setDirection(Direction.Down);
+        index.update(1);
+        statuses[2].setFloor(4);
+        index.update(2);
+
+        assertEquals(2, index.select(5)); // Floor 4 going up beats floor 8 going down
+        assertEquals(1, index.select(7));
+
+        statuses[2].setRiders(Elevator.CAPACITY_LIMIT);
+        index.update(2);
+        assertEquals(0, index.select(5));
+
+        statuses[0].markShutDown();
+        index.update(0);
+        assertEquals(1, index.select(5));
+    }
+
+    /**
+     * Checks that when no elevator is heading towards the floor, the first
+     * elevator that has not shut down is chosen.
+     */
+    @Test
+    void testFallback() {
+        ElevatorStatus[] statuses = newStatuses(3);
+        for (ElevatorStatus status : statuses) {
+            status.setFloor(10);
+        }
+        ElevatorIndex index = new ElevatorIndex(statuses);
+        assertEquals(0, index.select(1));
+
+        statuses[0].markShutDown();
+        index.update(0);
+        assertEquals(1, index.select(1));
+    }
+
+    /**
+     * Checks that the index always picks the same elevator as the scheduler's
+     * linear search.
+     */
+    @Test
+    void testMatchesLinearSearch() {
+        Random random = new Random(3303);
+        ElevatorStatus[] statuses = newStatuses(50);
+        ElevatorIndex index = new ElevatorIndex(statuses);
+
+        for (int round = 0; round < 5000; round++) {
+            int i = random.nextInt(statuses.length);
+            statuses[i].setFloor(1 + random.nextInt(FloorSubsystem.NUM_FLOORS));
+            statuses[i].setDirection(random.nextBoolean() ? Direction.Up : Direction.Down);
+            statuses[i].setRiders(random.nextInt(Elevator.CAPACITY_LIMIT + 1));
+            if (random.nextInt(200) == 0) {
+                statuses[i].markShutDown();
+            }
+            index.update(i);
+
+            int origin = 1 + random.nextInt(FloorSubsystem.NUM_FLOORS);
+            assertEquals(Scheduler.selectElevator(statuses, origin), index.select(origin));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Lets every elevator in the elevator subsystem share one transport, so the
+ * number of sockets and ports stays the same no matter how many elevators there
+ * are. Requests from the scheduler are handed to the right elevator's inbox by
+ * the elevator ID in their header, and the elevators' messages are put on one
+ * outgoing queue that a single thread sends from.
+ *
+ * Each elevator talks through its own endpoint, which is a Transport like any
+ * other, so the elevator does not need to know it is sharing.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class ElevatorMultiplexer {
+
+    /** The log for the elevator subsystem. */
+    private static final Log LOG = Log.get("ElevatorSubsystem");
+
+    /** The transport shared by every elevator. */
+    private final Transport channel;
+
+    /** The messages waiting for each elevator, indexed by elevator ID. */
+    private final ArrayList<MpscMessageQueue<MemoryMessage>> inboxes;
+
+    /** The messages from every elevator waiting to be sent. */
+    private final MpscMessageQueue<Datagram> outgoing;
+
+    /**
+     * Creates a multiplexer that has not started yet.
+     *
+     * @param channel   The transport to share, bound to the elevator subsystem's
+     *                  port.
+     * @param elevators The number of elevators sharing it.
+     */
+    public ElevatorMultiplexer(Transport channel, int elevators) {
+        this.channel = channel;
+        this.inboxes = new ArrayList<>(elevators);
+        for (int i = 0; i < elevators; i++) {
+            this.inboxes.add(new MpscMessageQueue<>());
+        }
+        this.outgoing = new MpscMessageQueue<>();
+    }
+
+    /**
+     * Gets the transport an elevator sends and receives through. Only the elevator
+     * itself may receive from it.
+     *
+     * @param elevator The ID of the elevator.
+     * @return The elevator's endpoint.
+     */
+    public Transport endpoint(int elevator) {
+        return new ElevatorEndpoint(this, elevator);
+    }
+
+    /**
+     * Starts the threads that receive for and send from the elevators. The threads
+     * do not keep the program alive on their own.
+     *
+     * @return The started threads.
+     */
+    public Thread[] start() {
+        Thread[] threads = {
+                new Thread(this::receive, "Elevator multiplexer receiver"),
+                new Thread(this::publish, "Elevator multiplexer publisher"),
+        };
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return threads;
+    }
+
+    /**
+     * Receives messages from the shared transport and hands each to the inbox of
+     * the elevator it is for.
+     */
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ElevatorSubsystem.BUFFER_LEN);
+        try {
+            while (true) {
+                int port = this.channel.receive(buffer, 0);
+                byte[] data = new byte[buffer.remaining()];
+                buffer.get(data);
+                this.route(new MemoryMessage(data, this.channel.sourcePort(), port));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Hands a received message to the inbox of the elevator named in its header.
+     * Only the wire format version and the elevator ID are read, the same as when
+     * relaying. Messages for an elevator that is not here are dropped.
+     *
+     * @param message The received message.
+     */
+    void route(MemoryMessage message) {
+        ByteBuffer data = ByteBuffer.wrap(message.data);
+        if (data.remaining() < ElevatorRequest.ENCODED_LEN
+                || data.get(ElevatorRequest.VERSION_OFFSET) != ElevatorRequest.WIRE_VERSION) {
+            LOG.warn("Elevator subsystem dropped message in an unsupported format.");
+            return;
+        }
+
+        int elevator = data.getShort(ElevatorRequest.ELEVATOR_OFFSET);
+        if (elevator < 0 || elevator >= this.inboxes.size()) {
+            LOG.warn("Elevator subsystem dropped message for unknown elevator " + elevator + ".");
+            return;
+        }
+        this.inboxes.get(elevator).putMessage(message);
+    }
+
+    /**
+     * Sends the elevators' messages through the shared transport in the order they
+     * were put on the queue.
+     */
+    private void publish() {
+        try {
+            while (true) {
+                Datagram message = this.outgoing.getMessage();
+                if (message == null) {
+                    return; // Interrupted
+                }
+                this.channel.send(message.buffer, message.port);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Puts a message from an elevator on the outgoing queue.
+     *
+     * @param message The message to send.
+     */
+    void enqueue(Datagram message) {
+        this.outgoing.putMessage(message);
+    }
+
+    /**
+     * Gets the inbox of an elevator.
+     *
+     * @param elevator The ID of the elevator.
+     * @return The messages waiting for the elevator.
+     */
+    MpscMessageQueue<MemoryMessage> inbox(int elevator) {
+        return this.inboxes.get(elevator);
+    }
+}
+
+/**
+ * One elevator's view of an ElevatorMultiplexer. Messages are copied on send, so
+ * the elevator can reuse its buffer straight away, just like with the other
+ * transports.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class ElevatorEndpoint implements Transport {
+
+    /** The multiplexer the elevator shares. */
+    private final ElevatorMultiplexer multiplexer;
+
+    /** The messages waiting for this elevator. */
+    private final MpscMessageQueue<MemoryMessage> inbox;
+
+    /** The port the last received message was sent from. */
+    private int sourcePort;
+
+    /**
+     * Creates an endpoint. Use ElevatorMultiplexer.endpoint to get one.
+     *
+     * @param multiplexer The multiplexer the elevator shares.
+     * @param elevator    The ID of the elevator.
+     */
+    ElevatorEndpoint(ElevatorMultiplexer multiplexer, int elevator) {
+        this.multiplexer = multiplexer;
+        this.inbox = multiplexer.inbox(elevator);
+    }
+
+    @Override
+    public void send(ByteBuffer message, int port) {
+        byte[] data = new byte[message.remaining()];
+        message.get(data);
+        this.multiplexer.enqueue(new Datagram(port, data));
+    }
+
+    @Override
+    public int receive(ByteBuffer into, long timeoutMillis) {
+        MemoryMessage message = timeoutMillis == 0 ? this.inbox.getMessage() : this.inbox.getMessage(timeoutMillis);
+        if (message == null) {
+            return -1;
+        }
+
+        into.clear();
+        into.put(message.data, 0, Math.min(message.data.length, into.remaining()));
+        into.flip();
+        this.sourcePort = message.source;
+        return message.destination;
+    }
+
+    @Override
+    public int sourcePort() {
+        return this.sourcePort;
+    }
+
+    /** Does nothing, since the shared transport belongs to the multiplexer. */
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the ElevatorMultiplexer class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class ElevatorMultiplexerTest {
+
+    /**
+     * Tests that a request from the scheduler reaches only the elevator named in
+     * its header.
+     */
+    @Test
+    void testRouteToElevator() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport scheduler = network.bind(Scheduler.ELEVATOR_PORT);
+        ElevatorMultiplexer multiplexer = new ElevatorMultiplexer(network.bind(ElevatorSubsystem.PORT), 3);
+        Transport first = multiplexer.endpoint(0);
+        Transport second = multiplexer.endpoint(1);
+        multiplexer.start();
+
+        ElevatorRequest request = new ElevatorRequest(1, 1, 5, 2, 0, 5, 1, false);
+        scheduler.send(ByteBuffer.wrap(request.getBytes()), ElevatorSubsystem.PORT);
+
+        ByteBuffer received = ByteBuffer.allocate(ElevatorSubsystem.BUFFER_LEN);
+        assertEquals(ElevatorSubsystem.PORT, second.receive(received, 1000));
+        assertEquals(Scheduler.ELEVATOR_PORT, second.sourcePort());
+        assertEquals(request, new ElevatorRequest(received.array()));
+        assertEquals(-1, first.receive(received, 20));
+    }
+
+    /**
+     * Tests that messages for unknown elevators or in an unsupported format are
+     * dropped.
+     */
+    @Test
+    void testDropUnroutable() throws IOException {
+        ElevatorMultiplexer multiplexer = new ElevatorMultiplexer(new MemoryNetwork().bind(), 2);
+        Transport elevator = multiplexer.endpoint(1);
+
+        byte[] unknown = new ElevatorRequest(2, 1, 5, 2, 0, 5, 1, false).getBytes();
+        byte[] unsupported = new ElevatorRequest(1, 1, 5, 2, 0, 5, 1, false).getBytes();
+        unsupported[ElevatorRequest.VERSION_OFFSET] = ElevatorRequest.WIRE_VERSION + 1;
+        multiplexer.route(new MemoryMessage(unknown, Scheduler.ELEVATOR_PORT, ElevatorSubsystem.PORT));
+        multiplexer.route(new MemoryMessage(unsupported, Scheduler.ELEVATOR_PORT, ElevatorSubsystem.PORT));
+        multiplexer.route(new MemoryMessage(new byte[4], Scheduler.ELEVATOR_PORT, ElevatorSubsystem.PORT));
+
+        assertEquals(-1, elevator.receive(ByteBuffer.allocate(ElevatorSubsystem.BUFFER_LEN), 20));
+    }
+
+    /**
+     * Tests that every elevator's messages are sent from the shared port, and that
+     * each elevator can reuse its buffer straight away.
+     */
+    @Test
+    void testSendFromElevators() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport scheduler = network.bind(Scheduler.ELEVATOR_PORT);
+        ElevatorMultiplexer multiplexer = new ElevatorMultiplexer(network.bind(ElevatorSubsystem.PORT), 2);
+        multiplexer.start();
+
+        ByteBuffer message = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        multiplexer.endpoint(0).send(message, Scheduler.ELEVATOR_PORT);
+        message.put(0, (byte) 9);
+        multiplexer.endpoint(1).send(ByteBuffer.wrap(new byte[] { 4 }), Scheduler.ELEVATOR_PORT);
+
+        ByteBuffer received = ByteBuffer.allocate(10);
+        assertEquals(Scheduler.ELEVATOR_PORT, scheduler.receive(received, 1000));
+        assertEquals(ElevatorSubsystem.PORT, scheduler.sourcePort());
+        assertEquals(3, received.remaining());
+        assertEquals(1, received.get(0));
+        assertEquals(Scheduler.ELEVATOR_PORT, scheduler.receive(received, 1000));
+        assertEquals(4, received.get(0));
+    }
+}
@@ -96,6 +96,59 @@ public class ElevatorRequest {
             .appendFraction(ChronoField.MILLI_OF_SECOND, 1, 3, false)
             .toFormatter();
 
+    /** The version of the wire format written by getBytes. */
+    static final byte WIRE_VERSION = 1;
+
+    /** The length of an encoded request in bytes. */
+    public static final int ENCODED_LEN = 24;
+
+    /*
+     * Layout of an encoded request. Floors, counts and the elevator ID are stored
+     * as 2-byte signed integers, and the timestamp as nanoseconds since midnight.
+     */
+
+    /** Byte offset of the wire format version. */
+    static final int VERSION_OFFSET = 0;
+
+    /** Byte offset of the packed boolean flags and direction. */
+    static final int FLAGS_OFFSET = 1;
+
+    /** Byte offset of the elevator ID. */
+    static final int ELEVATOR_OFFSET = 2;
+
+    /** Byte offset of the origin floor. */
+    static final int ORIGIN_OFFSET = 4;
+
+    /** Byte offset of the destination floor. */
+    static final int DESTINATION_OFFSET = 6;
+
+    /** Byte offset of the number of riders. */
+    static final int RIDERS_OFFSET = 8;
+
+    /** Byte offset of the door status. */
+    static final int DOOR_OFFSET = 10;
+
+    /** Byte offset of the final destination floor. */
+    static final int FINAL_DESTINATION_OFFSET = 12;
+
+    /** Byte offset of the initial origin floor. */
+    static final int INITIAL_ORIGIN_OFFSET = 14;
+
+    /** Byte offset of the timestamp. */
+    static final int TIMESTAMP_OFFSET = 16;
+
+    /** Flag set when the request is complete. */
+    static final int COMPLETE_FLAG = 0x01;
+
+    /** Flag set when the elevator had a timer fault. */
+    static final int TIMER_FAULT_FLAG = 0x02;
+
+    /** Flag set when the request is fully complete. */
+    static final int FINAL_COMPLETE_FLAG = 0x04;
+
+    /** Flag set when the direction is down rather than up. */
+    static final int DOWN_FLAG = 0x08;
+
     /**
      * Constructs a new ElevatorRequest object with detailed parameters for
      * immediate requests.
@@ -147,35 +200,31 @@ public class ElevatorRequest {
      * scenarios where requests are serialized.
      *
      * @param bytes The byte array containing the serialized ElevatorRequest.
-     * @throws UnsupportedEncodingException If the platform does not support the
-     *                                      required encoding.
+     * @throws UnsupportedEncodingException If the bytes were encoded with an
+     *                                      unsupported wire format version.
      */
     public ElevatorRequest(byte[] bytes) throws UnsupportedEncodingException {
-        ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-        buffer.put(bytes).position(0); // Prepare to read from the beginning.
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        byte version = buffer.get(VERSION_OFFSET);
+        if (version != WIRE_VERSION) {
+            throw new UnsupportedEncodingException("Unsupported ElevatorRequest wire version " + version);
+        }
 
         // Decode the properties from the byte buffer.
-        this.origin = buffer.getInt();
-        this.destination = buffer.getInt();
-        this.elevator = buffer.getInt();
-        this.complete = buffer.getInt() == 1;
-        this.timerFault = buffer.getInt() == 1;
-        this.direction = Direction.values()[buffer.getInt()];
-        this.riders = buffer.getInt();
-        this.door = buffer.getInt();
-        this.finalDestination = buffer.getInt();
-        this.initialOrigin = buffer.getInt();
-        this.finalComplete = buffer.getInt() == 1;
-
-        buffer.compact(); // Compact array so remaining data is timestamp
-
-        // Remove excess null terminating characters
-        byte[] timestamp_bytes = buffer.array();
-        int i = 0;
-        for (; timestamp_bytes[i] != 0; i++)
-            ;
-        String timestamp_text = new String(timestamp_bytes, 0, i, "US-ASCII");
-        this.timestamp = LocalTime.parse(timestamp_text);
+        int flags = buffer.get(FLAGS_OFFSET);
+        this.complete = (flags & COMPLETE_FLAG) != 0;
+        this.timerFault = (flags & TIMER_FAULT_FLAG) != 0;
+        this.finalComplete = (flags & FINAL_COMPLETE_FLAG) != 0;
+        this.direction = (flags & DOWN_FLAG) != 0 ? Direction.Down : Direction.Up;
+        this.elevator = buffer.getShort(ELEVATOR_OFFSET);
+        this.origin = buffer.getShort(ORIGIN_OFFSET);
+        this.destination = buffer.getShort(DESTINATION_OFFSET);
+        this.riders = buffer.getShort(RIDERS_OFFSET);
+        this.door = buffer.getShort(DOOR_OFFSET);
+        this.finalDestination = buffer.getShort(FINAL_DESTINATION_OFFSET);
+        this.initialOrigin = buffer.getShort(INITIAL_ORIGIN_OFFSET);
+        this.timestamp = LocalTime.ofNanoOfDay(buffer.getLong(TIMESTAMP_OFFSET));
     }
 
     /**
@@ -371,24 +420,54 @@ public class ElevatorRequest {
     }
 
     /**
-     * Encodes this ElevatorRequest into a byte array for serialization.
+     * Encodes this ElevatorRequest into a byte array for serialization. Floors,
+     * counts and the elevator ID must fit in a 2-byte signed integer.
      *
-     * @return A byte array representing this ElevatorRequest.
+     * @return A byte array of length ENCODED_LEN representing this
+     *         ElevatorRequest.
+     * @throws IllegalArgumentException If a field does not fit in its 2 bytes.
      */
     public byte[] getBytes() {
-        ByteBuffer buffer = ByteBuffer.allocate(100);
-        buffer.putInt(this.origin);
-        buffer.putInt(this.destination);
-        buffer.putInt(this.elevator);
-        buffer.putInt(this.complete ? 1 : 0);
-        buffer.putInt(this.timerFault ? 1 : 0);
-        buffer.putInt(this.direction.ordinal());
-        buffer.putInt(this.riders);
-        buffer.putInt(this.door);
-        buffer.putInt(this.finalDestination);
-        buffer.putInt(this.initialOrigin);
-        buffer.putInt(this.finalComplete ? 1 : 0);
-        buffer.put(this.timestamp.toString().getBytes());
+        int flags = 0;
+        if (this.complete) {
+            flags |= COMPLETE_FLAG;
+        }
+        if (this.timerFault) {
+            flags |= TIMER_FAULT_FLAG;
+        }
+        if (this.finalComplete) {
+            flags |= FINAL_COMPLETE_FLAG;
+        }
+        if (this.direction == Direction.Down) {
+            flags |= DOWN_FLAG;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_LEN);
+        buffer.put(VERSION_OFFSET, WIRE_VERSION);
+        buffer.put(FLAGS_OFFSET, (byte) flags);
+        buffer.putShort(ELEVATOR_OFFSET, toShort("Elevator ID", this.elevator));
+        buffer.putShort(ORIGIN_OFFSET, toShort("Origin floor", this.origin));
+        buffer.putShort(DESTINATION_OFFSET, toShort("Destination floor", this.destination));
+        buffer.putShort(RIDERS_OFFSET, toShort("Riders", this.riders));
+        buffer.putShort(DOOR_OFFSET, toShort("Door", this.door));
+        buffer.putShort(FINAL_DESTINATION_OFFSET, toShort("Final destination floor", this.finalDestination));
+        buffer.putShort(INITIAL_ORIGIN_OFFSET, toShort("Initial origin floor", this.initialOrigin));
+        buffer.putLong(TIMESTAMP_OFFSET, this.timestamp.toNanoOfDay());
         return buffer.array();
     }
+
+    /**
+     * Checks that a field fits in the 2-byte signed integer it is encoded as.
+     *
+     * @param field The name of the field, for the error message.
+     * @param value The value of the field.
+     * @return The value as a short.
+     * @throws IllegalArgumentException If the value does not fit.
+     */
+    static short toShort(String field, int value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException(field + " " + value + " does not fit in the wire format");
+        }
+        return (short) value;
+    }
 }
@@ -75,6 +75,58 @@ class ElevatorRequestTest {
     void testGetByteArray() {
         byte[] bytes = REQUEST.getBytes();
         assertNotNull(bytes);
-        assertEquals(100, bytes.length);
+        assertEquals(ElevatorRequest.ENCODED_LEN, bytes.length);
+    }
+
+    /**
+     * Check that every field of a request survives being encoded and decoded.
+     */
+    @Test
+    void testByteRoundTrip() throws UnsupportedEncodingException {
+        ElevatorRequest request = new ElevatorRequest(3, 9, 2, 4, -2, 1, 12, true);
+        request.setTimerFault(true);
+        request.markComplete();
+
+        ElevatorRequest decoded = new ElevatorRequest(request.getBytes());
+        assertEquals(3, decoded.getElevator());
+        assertEquals(9, decoded.getOriginFloor());
+        assertEquals(2, decoded.getDestinationFloor());
+        assertEquals(Direction.Down, decoded.getDirection());
+        assertEquals(4, decoded.getRiders());
+        assertEquals(-2, decoded.getDoor());
+        assertEquals(1, decoded.getFinalDestinationFloor());
+        assertEquals(12, decoded.getInitialOriginFloor());
+        assertTrue(decoded.isFinalComplete());
+        assertTrue(decoded.isComplete());
+        assertTrue(decoded.getTimerFault());
+        assertEquals(request.getTimestamp(), decoded.getTimestamp());
+    }
+
+    /**
+     * Check that fields too large for the wire format are rejected instead of
+     * wrapping around.
+     */
+    @Test
+    void testOutOfRangeFields() throws UnsupportedEncodingException {
+        ElevatorRequest request = new ElevatorRequest(3, 9, 2, 4, 0, 1, 12, true);
+        request.setElevator(Short.MAX_VALUE);
+        assertEquals(Short.MAX_VALUE, new ElevatorRequest(request.getBytes()).getElevator());
+
+        request.setElevator(Short.MAX_VALUE + 1);
+        assertThrows(IllegalArgumentException.class, request::getBytes);
+        assertThrows(IllegalArgumentException.class, new ElevatorRequest(0, 70_000, 2, 4, 0, 1, 12, true)::getBytes);
+
+        ElevatorRequestView view = new ElevatorRequestView().wrap(REQUEST.getBytes(), 0);
+        assertThrows(IllegalArgumentException.class, () -> view.setElevator(-40_000));
+    }
+
+    /**
+     * Check that bytes in an unknown wire format version are rejected.
+     */
+    @Test
+    void testUnsupportedVersion() {
+        byte[] bytes = REQUEST.getBytes();
+        bytes[0] = 0;
+        assertThrows(UnsupportedEncodingException.class, () -> new ElevatorRequest(bytes));
     }
 }
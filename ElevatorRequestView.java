@@ -0,0 +1,226 @@
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+
+/**
+ * A reusable, read-through view of an encoded ElevatorRequest. Instead of
+ * copying a received packet into a new object, the view reads each field
+ * straight out of the buffer the packet was received into. Pointing the view at
+ * the same buffer again does not allocate, so a receive loop can decode every
+ * packet without creating garbage.
+ *
+ * The view can also change the elevator ID and timer fault flag in place, so a
+ * packet can be forwarded without being re-encoded.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class ElevatorRequestView {
+
+    /** The buffer holding the encoded request. */
+    private ByteBuffer buffer;
+
+    /** The array backing the buffer, or null if the buffer is direct. */
+    private byte[] array;
+
+    /** The offset of the encoded request within the buffer. */
+    private int offset;
+
+    /**
+     * Points the view at a request encoded in a byte array, such as the data of a
+     * received DatagramPacket.
+     *
+     * @param data   The array holding the encoded request.
+     * @param offset The offset of the encoded request within the array.
+     * @return This view.
+     */
+    public ElevatorRequestView wrap(byte[] data, int offset) {
+        if (this.array != data) {
+            this.buffer = ByteBuffer.wrap(data); // Only allocates when the array changes
+            this.array = data;
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Points the view at a request encoded in a buffer, which may be direct.
+     *
+     * @param buffer The buffer holding the encoded request.
+     * @param offset The offset of the encoded request within the buffer.
+     * @return This view.
+     */
+    public ElevatorRequestView wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.array = null;
+        this.offset = offset;
+        return this;
+    }
+
+    /**
+     * Checks if the request was encoded with a supported wire format version.
+     *
+     * @return True if the fields of the request can be read, false otherwise.
+     */
+    public boolean isSupported() {
+        return this.buffer.get(this.offset + ElevatorRequest.VERSION_OFFSET) == ElevatorRequest.WIRE_VERSION;
+    }
+
+    /**
+     * Returns the elevator ID associated with this request.
+     *
+     * @return The ID of the elevator handling this request.
+     */
+    public int getElevator() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.ELEVATOR_OFFSET);
+    }
+
+    /**
+     * Returns the floor from which the elevator request was made.
+     *
+     * @return The origin floor of the request.
+     */
+    public int getOriginFloor() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.ORIGIN_OFFSET);
+    }
+
+    /**
+     * Returns the targeted destination floor of the elevator request.
+     *
+     * @return The destination floor of the request.
+     */
+    public int getDestinationFloor() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.DESTINATION_OFFSET);
+    }
+
+    /**
+     * Returns the number of riders associated with this elevator request.
+     *
+     * @return The number of riders.
+     */
+    public int getRiders() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.RIDERS_OFFSET);
+    }
+
+    /**
+     * Returns the status of the elevator door associated with this request.
+     *
+     * @return The door status.
+     */
+    public int getDoor() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.DOOR_OFFSET);
+    }
+
+    /**
+     * Returns the final destination floor of the request.
+     *
+     * @return The final destination floor of the request.
+     */
+    public int getFinalDestinationFloor() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.FINAL_DESTINATION_OFFSET);
+    }
+
+    /**
+     * Returns the original origin floor from which the request started.
+     *
+     * @return The initial origin floor of the request.
+     */
+    public int getInitialOriginFloor() {
+        return this.buffer.getShort(this.offset + ElevatorRequest.INITIAL_ORIGIN_OFFSET);
+    }
+
+    /**
+     * Returns the direction intended for the elevator travel.
+     *
+     * @return The travel direction of the request.
+     */
+    public Direction getDirection() {
+        return this.hasFlag(ElevatorRequest.DOWN_FLAG) ? Direction.Down : Direction.Up;
+    }
+
+    /**
+     * Checks if the request has been fulfilled.
+     *
+     * @return True if the request is complete, false otherwise.
+     */
+    public boolean isComplete() {
+        return this.hasFlag(ElevatorRequest.COMPLETE_FLAG);
+    }
+
+    /**
+     * Returns whether the elevator experienced a timer fault while processing this
+     * request.
+     *
+     * @return True if there was a timer fault, false otherwise.
+     */
+    public boolean getTimerFault() {
+        return this.hasFlag(ElevatorRequest.TIMER_FAULT_FLAG);
+    }
+
+    /**
+     * Checks if the request has been fully completed.
+     *
+     * @return True if the request is fully complete, false otherwise.
+     */
+    public boolean isFinalComplete() {
+        return this.hasFlag(ElevatorRequest.FINAL_COMPLETE_FLAG);
+    }
+
+    /**
+     * Returns the timestamp of the request without creating a LocalTime.
+     *
+     * @return The timestamp of the request in nanoseconds since midnight.
+     */
+    public long getTimestampNanos() {
+        return this.buffer.getLong(this.offset + ElevatorRequest.TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Associates the encoded request with an elevator by its ID.
+     *
+     * @param elevator The ID of the elevator to be associated with this request.
+     * @throws IllegalArgumentException If the ID does not fit in 2 bytes.
+     */
+    public void setElevator(int elevator) {
+        this.buffer.putShort(this.offset + ElevatorRequest.ELEVATOR_OFFSET,
+                ElevatorRequest.toShort("Elevator ID", elevator));
+    }
+
+    /**
+     * Sets the timer fault flag of the encoded request.
+     *
+     * @param val The new value for the timer fault flag.
+     */
+    public void setTimerFault(boolean val) {
+        int position = this.offset + ElevatorRequest.FLAGS_OFFSET;
+        int flags = this.buffer.get(position);
+        flags = val ? flags | ElevatorRequest.TIMER_FAULT_FLAG : flags & ~ElevatorRequest.TIMER_FAULT_FLAG;
+        this.buffer.put(position, (byte) flags);
+    }
+
+    /**
+     * Checks if one of the packed flags is set.
+     *
+     * @param flag The flag to check.
+     * @return True if the flag is set, false otherwise.
+     */
+    private boolean hasFlag(int flag) {
+        return (this.buffer.get(this.offset + ElevatorRequest.FLAGS_OFFSET) & flag) != 0;
+    }
+
+    /**
+     * Generates the same string representation as the decoded ElevatorRequest.
+     *
+     * @return A detailed string summarizing the elevator request.
+     */
+    @Override
+    public String toString() {
+        String completeness = this.isComplete() ? "Complete" : "Incomplete";
+        return String.format("Timestamp: %s Direction: %s To: %d From: %d | %s",
+                LocalTime.ofNanoOfDay(this.getTimestampNanos()), this.getDirection(), this.getDestinationFloor(),
+                this.getOriginFloor(), completeness);
+    }
+}
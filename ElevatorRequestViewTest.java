@@ -0,0 +1,82 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the functionality of the ElevatorRequestView class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class ElevatorRequestViewTest {
+
+    /**
+     * Check that the view reads the same fields as the decoded request.
+     */
+    @Test
+    void testReadsFields() {
+        ElevatorRequest request = new ElevatorRequest(2, 7, 3, 4, -1, 3, 7, true);
+        request.markComplete();
+        ElevatorRequestView view = new ElevatorRequestView().wrap(request.getBytes(), 0);
+
+        assertTrue(view.isSupported());
+        assertEquals(2, view.getElevator());
+        assertEquals(7, view.getOriginFloor());
+        assertEquals(3, view.getDestinationFloor());
+        assertEquals(Direction.Down, view.getDirection());
+        assertEquals(4, view.getRiders());
+        assertEquals(-1, view.getDoor());
+        assertEquals(3, view.getFinalDestinationFloor());
+        assertEquals(7, view.getInitialOriginFloor());
+        assertTrue(view.isComplete());
+        assertTrue(view.isFinalComplete());
+        assertFalse(view.getTimerFault());
+        assertEquals(request.getTimestamp().toNanoOfDay(), view.getTimestampNanos());
+        assertEquals(request.toString(), view.toString());
+    }
+
+    /**
+     * Check that changes made through the view are seen when the request is
+     * decoded.
+     */
+    @Test
+    void testWritesInPlace() throws UnsupportedEncodingException {
+        ElevatorRequest request = new ElevatorRequest("14:05:15.2 2 Up 4");
+        byte[] bytes = request.getBytes();
+        ElevatorRequestView view = new ElevatorRequestView().wrap(bytes, 0);
+
+        view.setElevator(3);
+        view.setTimerFault(true);
+        ElevatorRequest decoded = new ElevatorRequest(bytes);
+        assertEquals(3, decoded.getElevator());
+        assertTrue(decoded.getTimerFault());
+        assertEquals(request, decoded);
+
+        view.setTimerFault(false);
+        assertFalse(new ElevatorRequest(bytes).getTimerFault());
+    }
+
+    /**
+     * Check that the view can read from an offset within a direct buffer.
+     */
+    @Test
+    void testDirectBuffer() {
+        ElevatorRequest request = new ElevatorRequest("14:05:15.2 5 Down 1");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+        buffer.position(10);
+        buffer.put(request.getBytes());
+
+        ElevatorRequestView view = new ElevatorRequestView().wrap(buffer, 10);
+        assertEquals(5, view.getOriginFloor());
+        assertEquals(1, view.getDestinationFloor());
+        assertEquals(Direction.Down, view.getDirection());
+        assertFalse(new ElevatorRequestView().wrap(buffer, 0).isSupported());
+    }
+}
@@ -12,6 +12,9 @@ import java.nio.ByteBuffer;
  */
 public class ElevatorStatus {
 
+    /** The length of an encoded status in bytes. */
+    public static final int ENCODED_LEN = 50;
+
     /** The current floor of the elevator. */
     private int floor;
 
@@ -59,18 +62,27 @@ public class ElevatorStatus {
      * object.
      */
     public ElevatorStatus(byte[] bytes) {
-        ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
-        buffer.put(bytes);
-        buffer.position(0);
-        this.floor = buffer.getInt();
-        this.direction = Direction.values()[buffer.getInt()];
-        this.shut_down = buffer.getInt() == 1;
-        this.riders = buffer.getInt();
-        this.elevator_id = buffer.getInt();
-        this.door = buffer.getInt();
-        this.destinationFloor = buffer.getInt();
-        this.originFloor = buffer.getInt();
-        this.complete = buffer.getInt() == 1;
+        this.readFrom(ByteBuffer.wrap(bytes), 0);
+    }
+
+    /**
+     * Overwrites this status with one decoded from a buffer, without copying the
+     * buffer. Reusing one status object this way lets a receive loop decode every
+     * update without allocating.
+     *
+     * @param buffer The buffer holding the encoded status.
+     * @param offset The offset of the encoded status within the buffer.
+     */
+    public final void readFrom(ByteBuffer buffer, int offset) {
+        this.floor = buffer.getInt(offset);
+        this.direction = buffer.getInt(offset + 4) == Direction.Down.ordinal() ? Direction.Down : Direction.Up;
+        this.shut_down = buffer.getInt(offset + 8) == 1;
+        this.riders = buffer.getInt(offset + 12);
+        this.elevator_id = buffer.getInt(offset + 16);
+        this.door = buffer.getInt(offset + 20);
+        this.destinationFloor = buffer.getInt(offset + 24);
+        this.originFloor = buffer.getInt(offset + 28);
+        this.complete = buffer.getInt(offset + 32) == 1;
     }
 
     /**
@@ -247,16 +259,27 @@ public class ElevatorStatus {
      * @return An array of bytes representing the encoded status object.
      */
     public byte[] getBytes() {
-        ByteBuffer buffer = ByteBuffer.allocate(50);
-        buffer.putInt(this.floor);
-        buffer.putInt(this.direction.ordinal());
-        buffer.putInt(this.shut_down ? 1 : 0);
-        buffer.putInt(this.riders);
-        buffer.putInt(this.elevator_id);
-        buffer.putInt(this.door);
-        buffer.putInt(this.destinationFloor);
-        buffer.putInt(this.originFloor);
-        buffer.putInt(this.complete ? 1 : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_LEN);
+        this.writeTo(buffer, 0);
         return buffer.array();
     }
+
+    /**
+     * Encodes the status object into an existing buffer, so that a sender can
+     * reuse one buffer for every update.
+     *
+     * @param buffer The buffer to write the encoded status into.
+     * @param offset The offset within the buffer at which to write.
+     */
+    public void writeTo(ByteBuffer buffer, int offset) {
+        buffer.putInt(offset, this.floor);
+        buffer.putInt(offset + 4, this.direction.ordinal());
+        buffer.putInt(offset + 8, this.shut_down ? 1 : 0);
+        buffer.putInt(offset + 12, this.riders);
+        buffer.putInt(offset + 16, this.elevator_id);
+        buffer.putInt(offset + 20, this.door);
+        buffer.putInt(offset + 24, this.destinationFloor);
+        buffer.putInt(offset + 28, this.originFloor);
+        buffer.putInt(offset + 32, this.complete ? 1 : 0);
+    }
 }
@@ -51,4 +51,34 @@ class ElevatorStatusTest {
 
         assertArrayEquals(expectedBytes, elevatorStatus.getBytes());
     }
+
+    /**
+     * Test that a status written into a reused buffer decodes to the same values
+     */
+    @Test
+    void testWriteToReadFrom(){
+        elevatorStatus.setElevator(1);
+        elevatorStatus.setFloor(12);
+        elevatorStatus.setDirection(Direction.Down);
+        elevatorStatus.setRiders(2);
+        elevatorStatus.setDoor(-1);
+        elevatorStatus.setDestinationFloor(3);
+        elevatorStatus.setOriginFloor(14);
+        elevatorStatus.setComplete(true);
+
+        ByteBuffer buffer = ByteBuffer.allocate(ElevatorStatus.ENCODED_LEN + 8);
+        elevatorStatus.writeTo(buffer, 8);
+
+        ElevatorStatus decoded = new ElevatorStatus();
+        decoded.readFrom(buffer, 8);
+        assertEquals(1, decoded.getElevator());
+        assertEquals(12, decoded.getFloor());
+        assertEquals(Direction.Down, decoded.getDirection());
+        assertEquals(2, decoded.getRiders());
+        assertEquals(-1, decoded.getDoor());
+        assertEquals(3, decoded.getDestinationFloor());
+        assertEquals(14, decoded.getOriginFloor());
+        assertTrue(decoded.isComplete());
+        assertFalse(decoded.isShutDown());
+    }
 }
@@ -1,9 +1,6 @@
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.util.ArrayList;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.net.SocketException;
+import java.nio.ByteBuffer;
 
 /**
  * Represents the subsystem containing the elevators.
@@ -20,11 +17,49 @@ public class ElevatorSubsystem {
     /** Port for sending and receiving messages. */
     public static final int PORT = 2003;
 
-    /** Length of buffer in bytes for receiving UDP messages. */
+    /** Length of buffer in bytes for receiving messages. */
     public static final int BUFFER_LEN = 100;
 
-    /** Number of elevators in the simulation. */
-    public static final int NUM_ELEVATORS = 4;
+    /** The system property that sets the number of elevators. */
+    public static final String ELEVATORS_PROPERTY = "elevators";
+
+    /** The system property that chooses what kind of thread the elevators run on. */
+    public static final String THREADS_PROPERTY = "elevator.threads";
+
+    /** Runs each elevator on its own operating system thread. */
+    public static final String PLATFORM_THREADS = "platform";
+
+    /**
+     * Runs each elevator on a virtual thread, so thousands of elevators can share a
+     * handful of operating system threads. Needs multiplexed routing or the memory
+     * transport.
+     */
+    public static final String VIRTUAL_THREADS = "virtual";
+
+    /**
+     * The system property that chooses how messages travel between the elevators
+     * and the scheduler.
+     */
+    public static final String ROUTING_PROPERTY = "elevator.routing";
+
+    /** Messages between the elevators and the scheduler are relayed by the elevator subsystem. */
+    public static final String RELAY_ROUTING = "relay";
+
+    /** The elevators and the scheduler send messages straight to each other. */
+    public static final String DIRECT_ROUTING = "direct";
+
+    /**
+     * The elevators share the elevator subsystem's one transport, which hands each
+     * request from the scheduler to the right elevator and sends the elevators'
+     * messages straight to the scheduler.
+     */
+    public static final String MULTIPLEXED_ROUTING = "multiplexed";
+
+    /**
+     * Number of elevators in the simulation, 4 unless set with the `elevators`
+     * property. Every subsystem must be given the same number.
+     */
+    public static final int NUM_ELEVATORS = Integer.getInteger(ELEVATORS_PROPERTY, 4);
 
     /**
      * The port number at which elevator ports begin. Elevator ports are
@@ -32,23 +67,50 @@ public class ElevatorSubsystem {
      */
     public static final int ELEVATOR_PORT_START = 2007;
 
+    /** The log for the elevator subsystem. */
+    private static final Log LOG = Log.get("ElevatorSubsystem");
+
     /** Runs the primary logic of the ElevatorSubsystem. */
-    public static void main(String[] args) throws IOException, SocketException {
+    public static void main(String[] args) throws IOException {
+        Metrics.serveFromProperty();
 
-        // Create socket for receiving requests
-        DatagramSocket channel = new DatagramSocket(PORT);
+        // With direct routing there is nothing to relay, so just run the elevators
+        if (isDirectRouting()) {
+            Elevator[] elevators = initElevators();
+            reportLatenciesOnExit(elevators);
+            registerMetrics(elevators);
+            awaitElevators(startElevators(elevators));
+            return;
+        }
+
+        // Multiplexed routing shares one transport between all the elevators
+        if (isMultiplexedRouting()) {
+            ElevatorMultiplexer multiplexer = new ElevatorMultiplexer(Transport.open(PORT), NUM_ELEVATORS);
+            Elevator[] elevators = initElevators(multiplexer);
+            reportLatenciesOnExit(elevators);
+            registerMetrics(elevators);
+            Thread[] threads = startElevators(elevators);
+            multiplexer.start();
+            awaitElevators(threads);
+            return;
+        }
+
+        // Create transport for receiving requests
+        Transport channel = Transport.open(PORT);
 
         Elevator[] elevators = initElevators();
+        reportLatenciesOnExit(elevators);
+        registerMetrics(elevators);
         startElevators(elevators);
 
         // Process requests from scheduler
+        ByteBuffer message = ByteBuffer.allocate(BUFFER_LEN);
         while (true) {
 
-            DatagramPacket message = new DatagramPacket(new byte[BUFFER_LEN], BUFFER_LEN);
-            channel.receive(message);
+            channel.receive(message, 0);
 
-            switch (message.getPort()) {
-                case Scheduler.PORT:
+            switch (channel.sourcePort()) {
+                case Scheduler.ELEVATOR_PORT:
                     // Forward message to the correct elevator
                     routeToElevator(message, channel);
                     break;
@@ -61,28 +123,71 @@ public class ElevatorSubsystem {
     }
 
     /**
-     * Forwards an ElevatorRequest to the correct elevator.
+     * Checks whether the elevators and the scheduler send messages straight to each
+     * other, as chosen with the `elevator.routing` property. The default is to relay
+     * them through the elevator subsystem.
+     *
+     * @return True for direct routing, false if messages are relayed.
+     */
+    public static boolean isDirectRouting() {
+        return routing().equals(DIRECT_ROUTING);
+    }
+
+    /**
+     * Checks whether the elevators share the elevator subsystem's transport, as
+     * chosen with the `elevator.routing` property.
+     *
+     * @return True for multiplexed routing, false otherwise.
+     */
+    public static boolean isMultiplexedRouting() {
+        return routing().equals(MULTIPLEXED_ROUTING);
+    }
+
+    /**
+     * Gets the routing chosen with the `elevator.routing` property.
+     *
+     * @return One of `relay` (the default), `direct` or `multiplexed`.
+     */
+    private static String routing() {
+        String routing = System.getProperty(ROUTING_PROPERTY, RELAY_ROUTING);
+        switch (routing) {
+            case RELAY_ROUTING:
+            case DIRECT_ROUTING:
+            case MULTIPLEXED_ROUTING:
+                return routing;
+            default:
+                throw new IllegalArgumentException("Unknown elevator routing: " + routing);
+        }
+    }
+
+    /**
+     * Forwards an ElevatorRequest to the correct elevator. Only the wire format
+     * version and the elevator ID are read, straight from their fixed offsets,
+     * rather than decoding the whole request.
      * 
-     * @param message The DatagramPacket containing the encoded ElevatorRequest to
-     *                be forwarded.
-     * @param channel The UDP socket to use for forwarding the request.
+     * @param message The buffer containing the encoded ElevatorRequest to be
+     *                forwarded.
+     * @param channel The transport to use for forwarding the request.
      */
-    public static void routeToElevator(DatagramPacket message, DatagramSocket channel)
+    public static void routeToElevator(ByteBuffer message, Transport channel)
             throws UnsupportedEncodingException, IOException {
-        ElevatorRequest request = new ElevatorRequest(message.getData());
-        message.setPort(ELEVATOR_PORT_START + request.getElevator());
-        channel.send(message);
+        int start = message.position();
+        byte version = message.get(start + ElevatorRequest.VERSION_OFFSET);
+        if (version != ElevatorRequest.WIRE_VERSION) {
+            throw new UnsupportedEncodingException("Unsupported ElevatorRequest wire version " + version);
+        }
+        int elevator = message.getShort(start + ElevatorRequest.ELEVATOR_OFFSET);
+        channel.send(message, ELEVATOR_PORT_START + elevator);
     }
 
     /**
-     * Forwards a UDP message to the Scheduler.
+     * Forwards a message to the Scheduler.
      * 
-     * @param message The UDP message to be forwarded to the Scheduler.
-     * @param channel The UDP socket to use for forwarding.
+     * @param message The message to be forwarded to the Scheduler.
+     * @param channel The transport to use for forwarding.
      */
-    public static void sendToScheduler(DatagramPacket message, DatagramSocket channel) throws IOException {
-        message.setPort(Scheduler.PORT);
-        channel.send(message);
+    public static void sendToScheduler(ByteBuffer message, Transport channel) throws IOException {
+        channel.send(message, Scheduler.ELEVATOR_PORT);
     }
 
     /**
@@ -91,7 +196,7 @@ public class ElevatorSubsystem {
      * 
      * @return An array containing all the initialized elevators.
      */
-    public static Elevator[] initElevators() throws SocketException {
+    public static Elevator[] initElevators() throws IOException {
         Elevator[] elevators = new Elevator[NUM_ELEVATORS];
         for (int i = 0; i < NUM_ELEVATORS; i++) {
             elevators[i] = new Elevator(ELEVATOR_PORT_START + i);
@@ -100,16 +205,142 @@ public class ElevatorSubsystem {
     }
 
     /**
-     * Creates a thread for each elevator and starts it running.
+     * Initializes `NUM_ELEVATORS` elevators that share a multiplexer's transport
+     * and returns an array containing them all.
+     *
+     * @param multiplexer The multiplexer the elevators share.
+     * @return An array containing all the initialized elevators.
+     */
+    public static Elevator[] initElevators(ElevatorMultiplexer multiplexer) {
+        Elevator[] elevators = new Elevator[NUM_ELEVATORS];
+        for (int i = 0; i < NUM_ELEVATORS; i++) {
+            elevators[i] = new Elevator(i, multiplexer.endpoint(i), SimulationClock.SYSTEM);
+        }
+        return elevators;
+    }
+
+    /**
+     * Describes how long the requests took on each elevator and on all of them
+     * together, from being accepted to being dropped off, and how long their
+     * passengers waited and rode for.
+     *
+     * @param elevators The elevators to describe.
+     * @return Two lines per elevator, then two lines for every elevator together.
+     */
+    public static String latencyReport(Elevator[] elevators) {
+        StringBuilder report = new StringBuilder();
+        for (Elevator elevator : elevators) {
+            report.append("Elevator #").append(elevator.getId()).append(" request latency: ")
+                    .append(elevator.getLatencies()).append(System.lineSeparator());
+            report.append("Elevator #").append(elevator.getId()).append(" dispatch: ")
+                    .append(elevator.getDispatchStatistics()).append(System.lineSeparator());
+        }
+        report.append("All elevators request latency: ").append(Elevator.getAllLatencies())
+                .append(System.lineSeparator());
+        report.append("All elevators dispatch: ").append(Elevator.getAllDispatchStatistics());
+        return report.toString();
+    }
+
+    /**
+     * Registers each elevator's riders, floor, state and request latency with the
+     * metrics.
+     *
+     * @param elevators The elevators to register.
+     */
+    public static void registerMetrics(Elevator[] elevators) {
+        for (Elevator elevator : elevators) {
+            String id = Integer.toString(elevator.getId());
+            Metrics.gauge("elevator_riders", "Requests an elevator is servicing.", elevator::getRiders, "elevator", id);
+            Metrics.gauge("elevator_floor", "The floor an elevator is at.", elevator::getFloor, "elevator", id);
+            for (ElevatorState state : ElevatorState.values()) {
+                Metrics.gauge("elevator_state", "1 for the state an elevator is in, 0 for the others.",
+                        () -> elevator.getState() == state ? 1 : 0, "elevator", id, "state", state.name());
+            }
+            Metrics.summary("elevator_request_latency_seconds",
+                    "Time from a hall call to the elevator dropping its passengers off.", 1e-3, elevator.getLatencies(),
+                    "elevator", id);
+        }
+    }
+
+    /**
+     * Logs the latency report for the elevators when the program exits.
+     *
+     * @param elevators The elevators to report on.
+     */
+    private static void reportLatenciesOnExit(Elevator[] elevators) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            LOG.info(latencyReport(elevators));
+            Log.flush();
+        }, "Latency report"));
+    }
+
+    /**
+     * Waits for every elevator thread to finish.
+     *
+     * @param threads The elevator threads.
+     */
+    private static void awaitElevators(Thread[] threads) {
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates a thread for each elevator and starts it running. The kind of thread
+     * is chosen with the `elevator.threads` property, either `platform` (the
+     * default) or `virtual`.
      *
      * @param elevators An array of initialized Elevators to be run.
      * @return An array of the elevator threads.
      */
     public static Thread[] startElevators(Elevator[] elevators) {
+        String kind = System.getProperty(THREADS_PROPERTY, PLATFORM_THREADS);
+        switch (kind) {
+            case PLATFORM_THREADS:
+                return startElevators(elevators, false);
+            case VIRTUAL_THREADS:
+                return startElevators(elevators, true);
+            default:
+                throw new IllegalArgumentException("Unknown elevator thread kind: " + kind);
+        }
+    }
+
+    /**
+     * Creates a thread for each elevator and starts it running.
+     *
+     * An elevator with a UDP socket of its own waits for requests in a selector,
+     * which holds on to the operating system thread under a virtual thread. Such
+     * elevators would soon starve each other, so they can only run on virtual
+     * threads with multiplexed routing or the memory transport.
+     *
+     * @param elevators An array of initialized Elevators to be run.
+     * @param virtual   True to run the elevators on virtual threads, false to give
+     *                  each its own platform thread.
+     * @return An array of the elevator threads.
+     * @throws IllegalArgumentException If virtual threads are asked for but an
+     *                                  elevator has a UDP socket of its own.
+     */
+    public static Thread[] startElevators(Elevator[] elevators, boolean virtual) {
+        if (virtual && System.getProperty(Transport.PROPERTY, Transport.UDP).equals(Transport.UDP)) {
+            for (Elevator elevator : elevators) {
+                if (elevator.getPort() >= 0) {
+                    throw new IllegalArgumentException("Elevators with their own UDP sockets cannot run on virtual "
+                            + "threads, use -D" + ROUTING_PROPERTY + "=" + MULTIPLEXED_ROUTING + " or -D"
+                            + Transport.PROPERTY + "=" + Transport.MEMORY);
+                }
+            }
+        }
+
+        Thread.Builder builder = virtual ? Thread.ofVirtual() : Thread.ofPlatform();
+        builder.name("Elevator ", 0);
+
         Thread[] threads = new Thread[elevators.length];
         for (int i = 0; i < elevators.length; i++) {
-            threads[i] = new Thread(elevators[i]);
-            threads[i].start();
+            threads[i] = builder.start(elevators[i]);
         }
         return threads;
     }
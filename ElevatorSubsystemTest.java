@@ -1,12 +1,11 @@
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.InetAddress;
-import java.net.SocketException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -26,13 +25,32 @@ public class ElevatorSubsystemTest {
      */
     @Test
     public void testRouteToElevator() throws IOException {
-        DatagramSocket mockSocket = new DatagramSocket();
+        MemoryNetwork network = new MemoryNetwork();
+        Transport subsystem = network.bind(ElevatorSubsystem.PORT);
+        Transport elevator = network.bind(ElevatorSubsystem.ELEVATOR_PORT_START + 1);
         ElevatorRequest request = new ElevatorRequest(1, 1, 5, 2, 0, 5, 1, false);
-        DatagramPacket message = new DatagramPacket(request.getBytes(), request.getBytes().length, InetAddress.getLocalHost(), ElevatorSubsystem.ELEVATOR_PORT_START + request.getElevator());
 
-        ElevatorSubsystem.routeToElevator(message, mockSocket);
+        ElevatorSubsystem.routeToElevator(ByteBuffer.wrap(request.getBytes()), subsystem);
 
-        assertEquals(ElevatorSubsystem.ELEVATOR_PORT_START + request.getElevator(), message.getPort());
+        ByteBuffer received = ByteBuffer.allocate(ElevatorSubsystem.BUFFER_LEN);
+        assertEquals(ElevatorSubsystem.ELEVATOR_PORT_START + request.getElevator(), elevator.receive(received, 1000));
+        assertEquals(request, new ElevatorRequest(received.array()));
+    }
+
+    /**
+     * Checks that a message in an unsupported format is not forwarded.
+     */
+    @Test
+    public void testRouteUnsupportedToElevator() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport subsystem = network.bind(ElevatorSubsystem.PORT);
+        Transport elevator = network.bind(ElevatorSubsystem.ELEVATOR_PORT_START + 1);
+        byte[] data = new ElevatorRequest(1, 1, 5, 2, 0, 5, 1, false).getBytes();
+        data[ElevatorRequest.VERSION_OFFSET] = ElevatorRequest.WIRE_VERSION + 1;
+
+        assertThrows(UnsupportedEncodingException.class,
+                () -> ElevatorSubsystem.routeToElevator(ByteBuffer.wrap(data), subsystem));
+        assertEquals(-1, elevator.receive(ByteBuffer.allocate(ElevatorSubsystem.BUFFER_LEN), 20));
     }
 
     /**
@@ -41,27 +59,27 @@ public class ElevatorSubsystemTest {
      */
     @Test
     public void testSendToScheduler() throws IOException {
-        // Create a test socket
-        DatagramSocket testSocket = new DatagramSocket();
-
-        // Create a message with the destination address and port
-        InetAddress address = InetAddress.getByName("localhost");
-        int port = Scheduler.PORT;
+        MemoryNetwork network = new MemoryNetwork();
+        Transport subsystem = network.bind(ElevatorSubsystem.PORT);
+        Transport scheduler = network.bind(Scheduler.ELEVATOR_PORT);
         byte[] data = new byte[10];
-        DatagramPacket message = new DatagramPacket(data, data.length, address, port);
 
         // Send message
-        ElevatorSubsystem.sendToScheduler(message, testSocket);
-        assertEquals(port, message.getPort());
+        ElevatorSubsystem.sendToScheduler(ByteBuffer.wrap(data), subsystem);
+
+        ByteBuffer received = ByteBuffer.allocate(ElevatorSubsystem.BUFFER_LEN);
+        assertEquals(Scheduler.ELEVATOR_PORT, scheduler.receive(received, 1000));
+        assertEquals(data.length, received.remaining());
+        assertEquals(ElevatorSubsystem.PORT, scheduler.sourcePort());
     }
 
     /**
      * Checks that the correct number of initialized elevators are created with
      * the correct number of ports.
-     * @throws SocketException
+     * @throws IOException
      */
     @Test
-    public void testInitElevators() throws SocketException {
+    public void testInitElevators() throws IOException {
         Elevator[] elevators = ElevatorSubsystem.initElevators();
 
         // Check that the correct number of elevators are initialized
@@ -76,10 +94,10 @@ public class ElevatorSubsystemTest {
      * Initializes elevator threads and checks that the correct number of threads
      * are started. Also checks that the elevators are in the RUNNABLE state.
      * @throws InterruptedException
-     * @throws SocketException
+     * @throws IOException
      */
     @Test
-    public void testStartElevators() throws InterruptedException, SocketException {
+    public void testStartElevators() throws InterruptedException, IOException {
         // Initialize an array of elevators
         Elevator[] elevators = new Elevator[3];
         for (int i = 0; i < elevators.length; i++) {
@@ -98,5 +116,45 @@ public class ElevatorSubsystemTest {
         }
     }
 
+    /**
+     * Checks that elevators sharing a transport can be started on virtual threads.
+     * @throws IOException
+     */
+    @Test
+    public void testStartElevatorsOnVirtualThreads() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Elevator[] elevators = new Elevator[3];
+        for (int i = 0; i < elevators.length; i++) {
+            elevators[i] = new Elevator(i, network.bind(2020 + i), SimulationClock.asFastAsPossible());
+        }
+
+        Thread[] threads = ElevatorSubsystem.startElevators(elevators, true);
+        assertEquals(elevators.length, threads.length);
+        for (Thread thread : threads) {
+            assertTrue(thread.isVirtual());
+            assertTrue(thread.isAlive());
+        }
+    }
 
-}
\ No newline at end of file
+    /**
+     * Checks that elevators with UDP sockets of their own are refused virtual
+     * threads, since waiting on their sockets would tie up the carrier threads.
+     * @throws IOException
+     */
+    @Test
+    public void testVirtualThreadsNeedSharedTransport() throws IOException {
+        Elevator[] elevators = new Elevator[3];
+        try {
+            for (int i = 0; i < elevators.length; i++) {
+                elevators[i] = new Elevator(2020 + i);
+            }
+            assertThrows(IllegalArgumentException.class, () -> ElevatorSubsystem.startElevators(elevators, true));
+        } finally {
+            for (Elevator elevator : elevators) {
+                if (elevator != null) {
+                    elevator.close();
+                }
+            }
+        }
+    }
+}
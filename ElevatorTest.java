@@ -3,6 +3,7 @@ import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import java.io.*;
 import java.net.*;
+import java.util.ArrayList;
 import java.util.concurrent.CountDownLatch;
 
 /**
@@ -23,7 +24,7 @@ public class ElevatorTest {
      * Also checks that the elevator does not try to move below the ground floor.
      */
     @Test
-    public void testMove() throws SocketException {
+    public void testMove() throws IOException {
         elevator = new Elevator(1998);
 
         // Elevator moves up a floor
@@ -48,13 +49,14 @@ public class ElevatorTest {
      * opening.
      */
     @Test
-    public void testOpenDoors() throws SocketException {
+    public void testOpenDoors() throws IOException {
         elevator = new Elevator(2004);
         ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
         System.setOut(new PrintStream(streamOutput));
 
         // Set randomNumber to a value greater than 30 to ensure doors open
         elevator.openDoors(31);
+        Log.flush();
 
         // Check that proper open door message prints
         assertTrue(streamOutput.toString().contains("Elevator #" + elevator.getId() + " door opened"));
@@ -65,12 +67,13 @@ public class ElevatorTest {
      * successfully.
      */
     @Test
-    public void testCloseDoors() throws SocketException {
+    public void testCloseDoors() throws IOException {
         elevator = new Elevator(2005);
         ByteArrayOutputStream streamOutput = new ByteArrayOutputStream();
         System.setOut(new PrintStream(streamOutput));
 
         elevator.closeDoors(31);
+        Log.flush();
 
         // Check that proper closed door message prints
         assertTrue(streamOutput.toString().contains("Elevator #" + elevator.getId() + " door closed"));
@@ -80,7 +83,7 @@ public class ElevatorTest {
      * Tests that requesting the next floor with no floors to process returns null.
      */
     @Test
-    public void testNextFloorUp() throws SocketException {
+    public void testNextFloorUp() throws IOException {
         elevator = new Elevator(2006);
         assertEquals(false, elevator.floorsInDirection());
     }
@@ -90,7 +93,7 @@ public class ElevatorTest {
      * elevator.
      */
     @Test
-    public void testToggleDirection() throws SocketException {
+    public void testToggleDirection() throws IOException {
         elevator = new Elevator(2007);
         Direction initial_direction = elevator.getDirection();
         elevator.toggleDirection();
@@ -101,7 +104,7 @@ public class ElevatorTest {
      * Tests if the elevator is at a floor that needs to be stopped at.
      */
     @Test
-    public void testAtStop() throws SocketException {
+    public void testAtStop() throws IOException {
         elevator = new Elevator(2008);
 
         elevator.move(90);
@@ -109,6 +112,40 @@ public class ElevatorTest {
     }
 
 
+    /**
+     * Tests that the elevator stops at a request's origin and then at its
+     * destination, and knows whether there are stops left in its direction.
+     */
+    @Test
+    public void testStopsForPickUpAndDropOff() {
+        ArrayList<ElevatorRequest> sent = new ArrayList<>();
+        elevator = new Elevator(0, SimulationClock.asFastAsPossible(), sent::add);
+        elevator.setFaultsEnabled(false);
+        elevator.accept(new ElevatorRequest("14:05:15.0 3 Up 5"));
+
+        // Waiting at the ground floor for a pick-up further up
+        assertFalse(elevator.atStop());
+        assertTrue(elevator.floorsInDirection());
+
+        elevator.move(100);
+        elevator.move(100);
+        assertTrue(elevator.atStop());
+        elevator.updateRequests();
+
+        // The rider is on board, so the next stop is their destination
+        assertFalse(elevator.atStop());
+        assertTrue(elevator.floorsInDirection());
+        elevator.move(100);
+        assertFalse(elevator.atStop());
+        elevator.move(100);
+        assertTrue(elevator.atStop());
+        assertFalse(elevator.floorsInDirection());
+
+        elevator.updateRequests();
+        assertFalse(elevator.atStop());
+        assertTrue(sent.get(sent.size() - 1).isFinalComplete());
+    }
+
     /**
      * Tests that the elevator sends a completion message to the ElevatorSubsystem
      * when it is finished a request.
@@ -1,6 +1,6 @@
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.net.*;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.format.DateTimeParseException;
@@ -21,12 +21,15 @@ import java.io.IOException;
  */
 public class FloorSubsystem {
 
-    /** Port number for receiving UDP packets. */
+    /** Port number for receiving messages. */
     static final int PORT = 2001;
 
-    /** Byte buffer length for receiving UDP packets. */
+    /** Byte buffer length for receiving messages. */
     static final int BUFFER_LEN = 100;
 
+    /** The log for the floor subsystem. */
+    private static final Log LOG = Log.get("FloorSubsystem");
+
     /** The number of floors in the building. */
     public static final int NUM_FLOORS = 22;
 
@@ -36,14 +39,12 @@ public class FloorSubsystem {
     /** The file to read requests from. */
     public static final String DATA_FILE = "testdata.txt";
 
-    /** Time between each request in milliseconds. */
-    static final int TIME_BETWEEN_REQUESTS = 5000;
-
     /** Runs the primary logic of the FloorSubsystem. */
-    public static void main(String[] args) throws FileNotFoundException, SocketException, IOException {
+    public static void main(String[] args) throws FileNotFoundException, IOException {
+        Metrics.serveFromProperty();
 
-        // Create socket for sending and receiving.
-        DatagramSocket channel = new DatagramSocket(PORT);
+        // Create transport for sending and receiving.
+        Transport channel = Transport.open(PORT);
 
         // Reads the input file.
         File file = new File(DATA_FILE);
@@ -56,38 +57,52 @@ public class FloorSubsystem {
             numRequests = fileStream.count();
         }
 
-        // Periodically read input file to simulate time between requests
-        Timer requester = new Timer();
-        requester.scheduleAtFixedRate(new TimerTask() {
-            public void run() {
-                try {
-                    ElevatorRequest rqst = nextRequest(reader);
-                    if (rqst == null) {
-                        System.out.println("No more requests.");
-                        this.cancel();
-                        return; // Time to stop
-                    }
-                    sendRequest(rqst, channel);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                    System.exit(1);
+        // Track current time of first request
+        SimulationClock clock = SimulationClock.SYSTEM;
+        long startTime = clock.millis();
+
+        // Send each request at the time given by its timestamp in the input file
+        TraceInjector trace = new TraceInjector(reader);
+        Thread requester = new Thread(() -> {
+            try {
+                RequestBatch batch = new RequestBatch();
+                ElevatorRequest rqst = trace.next();
+                while (rqst != null) {
+                    // Wait relative to the start so that delays do not add up
+                    clock.sleep(startTime + trace.getOffset() - clock.millis());
+
+                    // Send every request that is already due together in one datagram
+                    do {
+                        if (!batch.add(rqst)) {
+                            sendBatch(batch, channel);
+                            batch.add(rqst);
+                        }
+                        if (LOG.isEnabled(LogLevel.Info)) {
+                            LOG.info("Floor put request on queue: " + rqst);
+                        }
+                        rqst = trace.next();
+                    } while (rqst != null && startTime + trace.getOffset() <= clock.millis());
+                    sendBatch(batch, channel);
                 }
+                LOG.info("No more requests.");
+            } catch (IOException | InterruptedException e) {
+                e.printStackTrace();
+                System.exit(1);
             }
-        }, 0, TIME_BETWEEN_REQUESTS);
-
-        // Track current time of first request
-        Date startTime = new Date();
+        });
+        requester.start();
 
         // Continually check for completed messages and print them
         while (true) {
             ElevatorRequest response = receiveProcessedRequest(channel);
-            System.out.println("Floor got message: " + response);
+            if (LOG.isEnabled(LogLevel.Info)) {
+                LOG.info("Floor got message: " + response);
+            }
             receivedRequests++;
 
             if (receivedRequests == numRequests) {
-                Date finishTime = new Date();
-                long totalTime = finishTime.getTime() - startTime.getTime();
-                System.out.println("All requests completed in " + totalTime / 1000 + " seconds.");
+                long totalTime = clock.millis() - startTime;
+                LOG.info("All requests completed in " + totalTime / 1000 + " seconds.");
                 System.exit(0);
             }
 
@@ -95,15 +110,15 @@ public class FloorSubsystem {
     }
 
     /**
-     * Waits to receive a UDP message from the scheduler.
+     * Waits to receive a message from the scheduler.
      * 
-     * @param socket The UDP socket to receive from.
+     * @param channel The transport to receive from.
      * @return The received ElevatorRequest object.
      */
-    public static ElevatorRequest receiveProcessedRequest(DatagramSocket socket) throws IOException {
-        DatagramPacket message = new DatagramPacket(new byte[BUFFER_LEN], BUFFER_LEN);
-        socket.receive(message);
-        return new ElevatorRequest(message.getData());
+    public static ElevatorRequest receiveProcessedRequest(Transport channel) throws IOException {
+        ByteBuffer message = ByteBuffer.allocate(BUFFER_LEN);
+        channel.receive(message, 0);
+        return new ElevatorRequest(message.array());
     }
 
     /**
@@ -117,22 +132,38 @@ public class FloorSubsystem {
             try {
                 return new ElevatorRequest(reader.nextLine());
             } catch (DateTimeParseException e) {
-                System.out.println("Failed to parse input line timestamp: " + e);
+                LOG.warn("Failed to parse input line timestamp: " + e);
             }
         }
         return null;
     }
 
     /**
-     * Sends an elevator request to the scheduler over UDP.
+     * Sends an elevator request to the scheduler.
      * 
      * @param request The request to be sent.
-     * @param socket  The UDP socket to use to send the request.
+     * @param channel The transport to use to send the request.
      */
-    public static void sendRequest(ElevatorRequest request, DatagramSocket socket) throws IOException {
-        System.out.println("Floor put request on queue: " + request);
+    public static void sendRequest(ElevatorRequest request, Transport channel) throws IOException {
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Floor put request on queue: " + request);
+        }
         byte[] byte_rqst = request.getBytes();
-        socket.send(new DatagramPacket(byte_rqst, byte_rqst.length, InetAddress.getLocalHost(),
-                Scheduler.PORT));
+        channel.send(ByteBuffer.wrap(byte_rqst), Scheduler.PORT);
+    }
+
+    /**
+     * Sends a batch of elevator requests to the scheduler in a single message,
+     * then empties the batch so it can be refilled.
+     *
+     * @param batch   The batch of requests to be sent.
+     * @param channel The transport to use to send the batch.
+     */
+    public static void sendBatch(RequestBatch batch, Transport channel) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        channel.send(ByteBuffer.wrap(batch.array(), 0, batch.length()), Scheduler.PORT);
+        batch.clear();
     }
 }
@@ -5,7 +5,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.Scanner;
-import java.net.*;
+import java.nio.ByteBuffer;
 import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,24 +73,24 @@ class FloorSubsystemTest {
      * not in use.
      */
     @Test
-    public void testSendRequest() throws IOException, SocketException {
+    public void testSendRequest() throws IOException {
         ElevatorRequest request = new ElevatorRequest(FIRST_LINE_OF_FILE);
 
-        // Socket for the floor subsystem to use to send
-        DatagramSocket socket = new DatagramSocket();
+        // Transport for the floor subsystem to use to send
+        Transport socket = new UdpTransport();
 
-        // Socket that is the mock Scheduler
-        DatagramSocket scheduler = new DatagramSocket(Scheduler.PORT);
+        // Transport that is the mock Scheduler
+        Transport scheduler = new UdpTransport(Scheduler.PORT);
 
         // Send the request
         FloorSubsystem.sendRequest(request, socket);
 
         // Receive the request
-        DatagramPacket p = new DatagramPacket(new byte[100], 100);
-        scheduler.receive(p);
+        ByteBuffer p = ByteBuffer.allocate(100);
+        scheduler.receive(p, 0);
 
         // Parse the received request to compare
-        ElevatorRequest receivedRequest = new ElevatorRequest(p.getData());
+        ElevatorRequest receivedRequest = new ElevatorRequest(p.array());
         assertEquals(request, receivedRequest);
     }
 
@@ -100,24 +100,20 @@ class FloorSubsystemTest {
      * is not before running.
      */
     @Test
-    public void testReceiveRequest() throws IOException, SocketException {
+    public void testReceiveRequest() throws IOException {
 
         int port = 6541;
 
         ElevatorRequest request = new ElevatorRequest(FIRST_LINE_OF_FILE);
 
-        // Socket for the floor subsystem to use to receive
-        DatagramSocket socket = new DatagramSocket(port);
+        // Transport for the floor subsystem to use to receive
+        Transport socket = new UdpTransport(port);
 
-        // Socket that is the mock Scheduler
-        DatagramSocket scheduler = new DatagramSocket();
+        // Transport that is the mock Scheduler
+        Transport scheduler = new UdpTransport();
 
         // Send the request as though we are the scheduler
-        byte[] data = request.getBytes();
-        DatagramPacket sent = new DatagramPacket(data, data.length);
-        sent.setPort(port);
-        sent.setAddress(InetAddress.getLocalHost());
-        scheduler.send(sent);
+        scheduler.send(ByteBuffer.wrap(request.getBytes()), port);
 
         // Receive the request
         ElevatorRequest receivedRequest = FloorSubsystem.receiveProcessedRequest(socket);
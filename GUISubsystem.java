@@ -1,7 +1,5 @@
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.io.IOException;
-import java.net.SocketException;
+import java.nio.ByteBuffer;
 import javax.swing.*;
 
 /**
@@ -20,23 +18,35 @@ public class GUISubsystem {
     /** The port for receiving messages. */
     public static final int PORT = 2004;
 
-    /** Buffer length for receiving UDP packets. */
+    /** Buffer length for receiving messages. */
     private static final int BUFFER_LEN = 100;
 
+    /** The log for the GUI subsystem. */
+    private static final Log LOG = Log.get("GUISubsystem");
+
     /** Primary logic for the WebGUI. */
-    public static void main(String[] args) throws SocketException, IOException {
+    public static void main(String[] args) throws IOException {
 
-        // Channel for receiving UDP messages from the scheduler.
-        DatagramSocket channel = new DatagramSocket(PORT);
+        // Channel for receiving messages from the scheduler.
+        Transport channel = Transport.open(PORT);
 
         // Show the GUI
         ElevatorPanel elevatorPanel = createGUI();
 
+        // Buffer reused for every update
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_LEN);
+
+        // The latest known status of each elevator, which updates are applied to
+        ElevatorStatus[] statuses = new ElevatorStatus[ElevatorSubsystem.NUM_ELEVATORS];
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = new ElevatorStatus();
+        }
+
         // Update the GUI as packets are received
         while (true) {
 
             // Wait for status update
-            ElevatorStatus statusUpdate = receiveUpdate(channel);
+            ElevatorStatus statusUpdate = receiveUpdate(channel, buffer, statuses);
 
             // Display status update
             elevatorPanel.updateDisplay(statusUpdate);
@@ -64,14 +74,33 @@ public class GUISubsystem {
     }
 
     /**
-     * Waits for an elevator status update from the scheduler.
+     * Waits for an elevator status update from the scheduler and applies it to
+     * the known status of that elevator, without allocating. Updates that are cut
+     * short or about an elevator the GUI does not know of are dropped.
      * 
-     * @param channel The UDP socket to use for receiving messages.
-     * @return The received ElevatorStatus object.
+     * @param channel  The transport to use for receiving messages.
+     * @param buffer   The buffer to receive into.
+     * @param statuses The latest known status of each elevator.
+     * @return The updated status of the elevator the update was about.
      */
-    public static ElevatorStatus receiveUpdate(DatagramSocket channel) throws IOException {
-        DatagramPacket p = new DatagramPacket(new byte[BUFFER_LEN], BUFFER_LEN);
-        channel.receive(p);
-        return new ElevatorStatus(p.getData());
+    public static ElevatorStatus receiveUpdate(Transport channel, ByteBuffer buffer, ElevatorStatus[] statuses)
+            throws IOException {
+        while (true) {
+            channel.receive(buffer, 0);
+            if (!StatusDelta.isComplete(buffer, 0)) {
+                LOG.warn("GUI dropped status update in an unsupported format.");
+                continue;
+            }
+
+            int elevator = StatusDelta.elevatorOf(buffer, 0);
+            if (elevator < 0 || elevator >= statuses.length) {
+                LOG.warn("GUI dropped status update for unknown elevator " + elevator + ".");
+                continue;
+            }
+
+            ElevatorStatus status = statuses[elevator];
+            StatusDelta.apply(buffer, 0, status);
+            return status;
+        }
     }
 }
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the GUISubsystem class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class GUISubsystemTest {
+
+    /**
+     * Tests that status updates for unknown elevators or cut short are dropped,
+     * and the next good update is applied.
+     */
+    @Test
+    void testDropsBadUpdates() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport gui = network.bind(GUISubsystem.PORT);
+        Transport scheduler = network.bind(Scheduler.ELEVATOR_PORT);
+
+        // The scheduler knows of more elevators than the GUI
+        StatusDelta encoder = new StatusDelta(3);
+        ByteBuffer frame = ByteBuffer.allocate(StatusDelta.MAX_FRAME_LEN);
+        ElevatorStatus status = new ElevatorStatus();
+        status.setFloor(6);
+
+        status.setElevator(2);
+        int length = encoder.encode(status, frame);
+        scheduler.send(frame.duplicate().limit(length), GUISubsystem.PORT);
+        status.setElevator(1);
+        length = encoder.encode(status, frame);
+        scheduler.send(frame.duplicate().limit(length - 1), GUISubsystem.PORT);
+        scheduler.send(frame.duplicate().limit(length), GUISubsystem.PORT);
+
+        ElevatorStatus[] statuses = { new ElevatorStatus(), new ElevatorStatus() };
+        ByteBuffer buffer = ByteBuffer.allocate(StatusDelta.MAX_FRAME_LEN);
+        assertSame(statuses[1], GUISubsystem.receiveUpdate(gui, buffer, statuses));
+        assertEquals(6, statuses[1].getFloor());
+        assertEquals(1, statuses[0].getFloor());
+    }
+}
@@ -0,0 +1,170 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how long requests took in buckets whose width grows with the value, so
+ * that a few kilobytes cover everything from a millisecond to thousands of years
+ * while every value is still counted to within about 3%. Values below 64 are
+ * counted exactly. Above that, each power of two is split into 32 equal buckets.
+ *
+ * Any number of threads may record at once without taking a lock, and the
+ * percentiles can be read while they do.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class LatencyHistogram {
+
+    /** The number of values below which every value has its own bucket. */
+    private static final int LINEAR_BUCKETS = 64;
+
+    /** log2 of the number of buckets each power of two above that is split into. */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** The number of buckets each power of two is split into. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** log2 of the first value that does not have its own bucket. */
+    private static final int LINEAR_BITS = 6;
+
+    /** log2 of the largest value that is counted accurately; larger values share the last bucket. */
+    private static final int MAX_BITS = 46;
+
+    /** The total number of buckets. */
+    static final int BUCKETS = LINEAR_BUCKETS + (MAX_BITS - LINEAR_BITS + 1) * SUB_BUCKETS;
+
+    /** The number of values recorded in each bucket. */
+    private final AtomicLongArray counts;
+
+    /** The number of values recorded. */
+    private final AtomicLong total;
+
+    /** The largest value recorded. */
+    private final AtomicLong max;
+
+    /** The sum of every value recorded. */
+    private final AtomicLong sum;
+
+    /** Creates an empty histogram. */
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(BUCKETS);
+        this.total = new AtomicLong();
+        this.max = new AtomicLong();
+        this.sum = new AtomicLong();
+    }
+
+    /**
+     * Records one value.
+     *
+     * @param millis The latency in milliseconds. Negative values are counted as 0.
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        this.counts.incrementAndGet(bucket(value));
+        this.total.incrementAndGet();
+        this.max.accumulateAndGet(value, Math::max);
+        this.sum.addAndGet(value);
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return The number of values.
+     */
+    public long getCount() {
+        return this.total.get();
+    }
+
+    /**
+     * Gets the largest value recorded.
+     *
+     * @return The largest value in milliseconds, or 0 if there are none.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Gets the sum of every value recorded.
+     *
+     * @return The sum in milliseconds.
+     */
+    public long getSum() {
+        return this.sum.get();
+    }
+
+    /**
+     * Gets the value that a percentage of the recorded values are at or below.
+     *
+     * @param percentile The percentage, e.g. 99.9.
+     * @return The value in milliseconds, to within the width of its bucket, or 0
+     *         if there are no values.
+     */
+    public long getPercentile(double percentile) {
+        long count = this.total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * Describes the recorded values in one line.
+     *
+     * @return The count, the 50th, 90th, 99th and 99.9th percentiles, and the
+     *         largest value.
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d p50=%dms p90=%dms p99=%dms p99.9=%dms max=%dms", this.getCount(),
+                this.getPercentile(50), this.getPercentile(90), this.getPercentile(99), this.getPercentile(99.9),
+                this.getMax());
+    }
+
+    /**
+     * Finds the bucket a value is counted in.
+     *
+     * @param value The value, which is not negative.
+     * @return The index of the bucket.
+     */
+    static int bucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int bits = 63 - Long.numberOfLeadingZeros(value);
+        if (bits > MAX_BITS) {
+            return BUCKETS - 1;
+        }
+        int shift = bits - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (bits - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Finds the largest value counted in a bucket.
+     *
+     * @param bucket The index of the bucket.
+     * @return The largest value in the bucket.
+     */
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int bits = LINEAR_BITS + (bucket - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = bits - SUB_BUCKET_BITS;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+}
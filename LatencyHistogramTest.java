@@ -0,0 +1,79 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the LatencyHistogram class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Tests that small values are counted exactly and that the percentiles come
+     * out of the right place.
+     */
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (int i = 1; i <= 50; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(50, histogram.getCount());
+        assertEquals(25, histogram.getPercentile(50));
+        assertEquals(45, histogram.getPercentile(90));
+        assertEquals(50, histogram.getPercentile(99.9));
+        assertEquals(50, histogram.getMax());
+        assertEquals(1275, histogram.getSum());
+    }
+
+    /**
+     * Tests that large values are counted to within about 3%, and never reported
+     * as more than the largest value recorded.
+     */
+    @Test
+    void testLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : new long[] { 100, 1_000, 65_432, 3_600_000 }) {
+            long bucketTop = LatencyHistogram.highestValue(LatencyHistogram.bucket(value));
+            assertTrue(bucketTop >= value);
+            assertTrue(bucketTop <= value * 1.04);
+            histogram.record(value);
+        }
+
+        assertEquals(1_000, histogram.getPercentile(50), 1_000 * 0.04);
+        assertEquals(3_600_000, histogram.getPercentile(100));
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.bucket(Long.MAX_VALUE));
+    }
+
+    /**
+     * Tests that values recorded by many threads at once are all counted.
+     */
+    @Test
+    void testConcurrentRecord() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    histogram.record(j % 100);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(99, histogram.getMax());
+    }
+}
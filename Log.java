@@ -0,0 +1,135 @@
+/**
+ * Writes a subsystem's log messages to the console without making the caller
+ * wait for the console. Messages are put into a fixed-size ring buffer and a
+ * background thread writes them out in batches, so logging on the hot path costs
+ * about as much as a couple of atomic operations. If the buffer fills up faster
+ * than the console can keep up, new messages are dropped instead of slowing down
+ * the caller. The number dropped is written to the console once there is room,
+ * and served as the `log_dropped_messages_total` metric.
+ *
+ * A message is built before the log checks its level, so a caller building a
+ * message on a hot path should check isEnabled first.
+ *
+ * Each log has a source name, usually the subsystem's class name, and only writes
+ * messages at or above its level. The level of every log is set with the
+ * `log.level` system property (info by default), and the level of one source
+ * with `log.` followed by its name, e.g. `-Dlog.Elevator=debug`.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class Log {
+
+    /** The system property that sets the level of every log. */
+    public static final String PROPERTY = "log.level";
+
+    /** The start of the system property that sets the level of one source. */
+    public static final String SOURCE_PROPERTY_PREFIX = "log.";
+
+    /** The name of the subsystem writing to this log. */
+    private final String source;
+
+    /** The least important messages this log writes. */
+    private final LogLevel level;
+
+    /**
+     * Creates a log.
+     *
+     * @param source The name of the subsystem writing to the log.
+     * @param level  The least important messages the log writes.
+     */
+    Log(String source, LogLevel level) {
+        this.source = source;
+        this.level = level;
+    }
+
+    /**
+     * Gets the log for a subsystem, at the level set by the system properties.
+     *
+     * @param source The name of the subsystem, e.g. `Elevator`.
+     * @return The log for the subsystem.
+     */
+    public static Log get(String source) {
+        String level = System.getProperty(SOURCE_PROPERTY_PREFIX + source, System.getProperty(PROPERTY, "info"));
+        return new Log(source, LogLevel.parse(level));
+    }
+
+    /**
+     * Checks if this log writes messages at a level, so callers can skip building
+     * messages that would not be written.
+     *
+     * @param level The level of the message.
+     * @return True if messages at the level are written, false otherwise.
+     */
+    public boolean isEnabled(LogLevel level) {
+        return level != LogLevel.Off && level.compareTo(this.level) <= 0;
+    }
+
+    /**
+     * Writes a message at a level, if this log writes that level.
+     *
+     * @param level   The level of the message.
+     * @param message The message.
+     */
+    public void log(LogLevel level, String message) {
+        if (this.isEnabled(level)) {
+            LogBuffer.SYSTEM.append(System.currentTimeMillis(), level, this.source, message);
+        }
+    }
+
+    /**
+     * Writes a message at the error level.
+     *
+     * @param message The message.
+     */
+    public void error(String message) {
+        this.log(LogLevel.Error, message);
+    }
+
+    /**
+     * Writes a message at the warn level.
+     *
+     * @param message The message.
+     */
+    public void warn(String message) {
+        this.log(LogLevel.Warn, message);
+    }
+
+    /**
+     * Writes a message at the info level.
+     *
+     * @param message The message.
+     */
+    public void info(String message) {
+        this.log(LogLevel.Info, message);
+    }
+
+    /**
+     * Writes a message at the debug level.
+     *
+     * @param message The message.
+     */
+    public void debug(String message) {
+        this.log(LogLevel.Debug, message);
+    }
+
+    /**
+     * Waits until every message logged so far has been written to the console.
+     */
+    public static void flush() {
+        LogBuffer.SYSTEM.flush();
+    }
+
+    /**
+     * Gets the number of messages that were dropped because the buffer was full.
+     *
+     * @return The number of dropped messages.
+     */
+    public static long dropped() {
+        return LogBuffer.SYSTEM.dropped();
+    }
+}
@@ -0,0 +1,185 @@
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The ring buffer behind every Log, and the thread that writes it out. Any number
+ * of threads may append without taking a lock: each claims a slot by moving the
+ * claim counter forward, fills it in, then publishes it by storing its position
+ * in the slot's sequence. The writer thread takes published slots in order, so
+ * messages come out in the order their slots were claimed.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class LogBuffer {
+
+    /** The number of messages the buffer holds. Must be a power of two. */
+    static final int CAPACITY = 1 << 13;
+
+    /** How long the writer waits before checking for new messages, in nanoseconds. */
+    private static final long FLUSH_INTERVAL_NANOS = 2_000_000;
+
+    /** The buffer shared by every log in the process. */
+    static final LogBuffer SYSTEM = new LogBuffer();
+
+    /** The format of the time at the start of each line. */
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+            .withZone(ZoneId.systemDefault());
+
+    /** The time each message was logged, in milliseconds since the epoch. */
+    private final long[] times;
+
+    /** The level of each message. */
+    private final LogLevel[] levels;
+
+    /** The source of each message. */
+    private final String[] sources;
+
+    /** The text of each message. */
+    private final String[] messages;
+
+    /** One more than the position of the message published in each slot. */
+    private final AtomicLongArray published;
+
+    /** The position of the next slot to be claimed. */
+    private final AtomicLong claimed;
+
+    /**
+     * The position of the next message to be written. Slots before it are free to
+     * be claimed again. Only the writer moves it.
+     */
+    private volatile long written;
+
+    /** The number of messages dropped because the buffer was full. */
+    private final Counter dropped;
+
+    /** The number of dropped messages that have been reported on the console. */
+    private long reportedDropped;
+
+    /** The thread that writes the buffer out. */
+    private final Thread writer;
+
+    /** Creates an empty buffer and starts the thread that writes it out. */
+    LogBuffer() {
+        this.times = new long[CAPACITY];
+        this.levels = new LogLevel[CAPACITY];
+        this.sources = new String[CAPACITY];
+        this.messages = new String[CAPACITY];
+        this.published = new AtomicLongArray(CAPACITY);
+        this.claimed = new AtomicLong();
+        this.dropped = Metrics.counter("log_dropped_messages_total",
+                "Log messages dropped because the log's buffer was full.");
+
+        this.writer = new Thread(this::run, "Log writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        // Whatever is still in the buffer is written before the program exits
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "Log shutdown writer"));
+    }
+
+    /**
+     * Adds a message to the buffer. Never blocks.
+     *
+     * @param time    The time the message was logged.
+     * @param level   The level of the message.
+     * @param source  The source of the message.
+     * @param message The text of the message.
+     * @return True if the message was added, false if the buffer was full and it
+     *         was dropped.
+     */
+    boolean append(long time, LogLevel level, String source, String message) {
+        long position;
+        do {
+            position = this.claimed.get();
+            if (position - this.written >= CAPACITY) {
+                this.dropped.increment();
+                return false;
+            }
+        } while (!this.claimed.compareAndSet(position, position + 1));
+
+        int slot = (int) position & (CAPACITY - 1);
+        this.times[slot] = time;
+        this.levels[slot] = level;
+        this.sources[slot] = source;
+        this.messages[slot] = message;
+        this.published.set(slot, position + 1); // Publishes the slot to the writer
+        return true;
+    }
+
+    /**
+     * Writer thread: writes out published messages as they arrive.
+     */
+    private void run() {
+        while (true) {
+            if (this.drain() == 0) {
+                LockSupport.parkNanos(FLUSH_INTERVAL_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Writes every published message to the console in one go, then frees their
+     * slots.
+     *
+     * @return The number of messages written.
+     */
+    synchronized int drain() {
+        StringBuilder text = new StringBuilder();
+        long position = this.written;
+        int slot = (int) position & (CAPACITY - 1);
+        while (this.published.get(slot) == position + 1) {
+            text.append(TIME_FORMAT.format(Instant.ofEpochMilli(this.times[slot])))
+                    .append(' ').append(String.format("%-5s", this.levels[slot].name().toUpperCase()))
+                    .append(" [").append(this.sources[slot]).append("] ")
+                    .append(this.messages[slot]).append(System.lineSeparator());
+            this.sources[slot] = null;
+            this.messages[slot] = null;
+            position++;
+            slot = (int) position & (CAPACITY - 1);
+        }
+
+        long dropped = this.dropped.getAsLong();
+        if (dropped != this.reportedDropped) {
+            text.append("Log dropped ").append(dropped - this.reportedDropped)
+                    .append(" messages because it was full.").append(System.lineSeparator());
+            this.reportedDropped = dropped;
+        }
+
+        int count = (int) (position - this.written);
+        if (text.length() > 0) {
+            System.out.print(text);
+            System.out.flush();
+        }
+        this.written = position;
+        return count;
+    }
+
+    /**
+     * Waits until every message claimed so far has been written out.
+     */
+    void flush() {
+        long target = this.claimed.get();
+        while (this.written < target) {
+            LockSupport.unpark(this.writer);
+            LockSupport.parkNanos(FLUSH_INTERVAL_NANOS / 10);
+        }
+    }
+
+    /**
+     * Gets the number of messages dropped because the buffer was full.
+     *
+     * @return The number of dropped messages.
+     */
+    long dropped() {
+        return this.dropped.getAsLong();
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Enumeration representing how important a log message is. A log writes the
+ * messages at its level and every level above it.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public enum LogLevel {
+
+    /** Nothing is written. Only used as a log's level, never for a message. */
+    Off,
+
+    /** Something went wrong that the subsystem cannot recover from. */
+    Error,
+
+    /** Something unexpected happened, such as a message being dropped. */
+    Warn,
+
+    /** A change in what the system is doing, such as an elevator moving. */
+    Info,
+
+    /** Detail that is only needed when tracing a problem. */
+    Debug;
+
+    /**
+     * Gets the level with a name, ignoring case.
+     *
+     * @param name The name of the level, e.g. `debug`.
+     * @return The level with that name.
+     * @throws IllegalArgumentException If there is no level with that name.
+     */
+    public static LogLevel parse(String name) {
+        for (LogLevel level : values()) {
+            if (level.name().equalsIgnoreCase(name)) {
+                return level;
+            }
+        }
+        throw new IllegalArgumentException("Unknown log level: " + name);
+    }
+}
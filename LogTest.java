@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the Log class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class LogTest {
+
+    /**
+     * Tests that a log only writes messages at or above its level.
+     */
+    @Test
+    void testLevels() {
+        Log log = new Log("Test", LogLevel.Warn);
+        assertTrue(log.isEnabled(LogLevel.Error));
+        assertTrue(log.isEnabled(LogLevel.Warn));
+        assertFalse(log.isEnabled(LogLevel.Info));
+        assertFalse(log.isEnabled(LogLevel.Debug));
+        assertFalse(new Log("Test", LogLevel.Off).isEnabled(LogLevel.Error));
+    }
+
+    /**
+     * Tests that the level of one source can be set apart from every other log.
+     */
+    @Test
+    void testSourceLevel() {
+        System.setProperty(Log.SOURCE_PROPERTY_PREFIX + "LogTestSource", "DEBUG");
+        try {
+            assertTrue(Log.get("LogTestSource").isEnabled(LogLevel.Debug));
+            assertFalse(Log.get("LogTestOther").isEnabled(LogLevel.Debug));
+        } finally {
+            System.clearProperty(Log.SOURCE_PROPERTY_PREFIX + "LogTestSource");
+        }
+        assertThrows(IllegalArgumentException.class, () -> LogLevel.parse("loud"));
+    }
+
+    /**
+     * Tests that messages are written in order once flushed, and that messages
+     * below the log's level are not written at all.
+     */
+    @Test
+    void testFlush() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(output));
+        try {
+            Log log = new Log("Test", LogLevel.Info);
+            log.info("first");
+            log.debug("hidden");
+            log.warn("second");
+            Log.flush();
+        } finally {
+            System.setOut(console);
+        }
+
+        String text = output.toString();
+        assertTrue(text.contains("INFO  [Test] first"));
+        assertTrue(text.indexOf("first") < text.indexOf("WARN  [Test] second"));
+        assertFalse(text.contains("hidden"));
+    }
+
+    /**
+     * Tests that messages logged while the buffer is full are dropped, counted and
+     * reported once the console catches up.
+     */
+    @Test
+    void testDropsReported() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] b, int off, int len) {
+                // Holds up the writer thread, as a slow console would
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.write(b, off, len);
+            }
+        };
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(output));
+        long before = Log.dropped();
+        try {
+            Log log = new Log("Test", LogLevel.Info);
+            log.info("first");
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 2 * LogBuffer.CAPACITY; i++) {
+                log.info("flood");
+            }
+            release.countDown();
+            Log.flush();
+        } finally {
+            System.setOut(console);
+        }
+
+        assertTrue(Log.dropped() - before >= LogBuffer.CAPACITY);
+        assertTrue(output.toString().contains("messages because it was full."));
+        assertTrue(Metrics.scrape().contains("log_dropped_messages_total " + Log.dropped()));
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Runs the whole elevator system in a single JVM. Each subsystem runs on its own
+ * thread, and unless another transport is chosen with the `transport` system
+ * property, they talk through in-memory queues instead of UDP. Unless the
+ * `elevator.routing` property says otherwise, the elevators and the scheduler
+ * also send straight to each other.
+ *
+ * Pass `--gui` to show the GUI as well.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class Main {
+
+    /** The time given to the other subsystems to start before requests are sent, in milliseconds. */
+    private static final long STARTUP_DELAY = 500;
+
+    /** Runs every subsystem, exiting once the floor subsystem has seen all of its requests completed. */
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty(Transport.PROPERTY) == null) {
+            System.setProperty(Transport.PROPERTY, Transport.MEMORY);
+        }
+        if (System.getProperty(ElevatorSubsystem.ROUTING_PROPERTY) == null) {
+            System.setProperty(ElevatorSubsystem.ROUTING_PROPERTY, ElevatorSubsystem.DIRECT_ROUTING);
+        }
+
+        start("Scheduler", Scheduler::main);
+        start("ElevatorSubsystem", ElevatorSubsystem::main);
+        for (String arg : args) {
+            if (arg.equals("--gui")) {
+                start("GUISubsystem", GUISubsystem::main);
+            }
+        }
+
+        // Requests sent before the other subsystems are listening would be lost
+        Thread.sleep(STARTUP_DELAY);
+        FloorSubsystem.main(new String[0]);
+    }
+
+    /**
+     * Runs a subsystem on its own thread, ending the program if it fails.
+     *
+     * @param name      The name of the subsystem.
+     * @param subsystem The main method of the subsystem.
+     */
+    private static void start(String name, Subsystem subsystem) {
+        Thread thread = new Thread(() -> {
+            try {
+                subsystem.main(new String[0]);
+            } catch (Exception e) {
+                e.printStackTrace();
+                System.exit(1);
+            }
+        }, name);
+        thread.start();
+    }
+
+    /**
+     * The main method of a subsystem.
+     */
+    private interface Subsystem {
+        void main(String[] args) throws Exception;
+    }
+}
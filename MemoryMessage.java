@@ -0,0 +1,34 @@
+/**
+ * A message travelling through a MemoryNetwork.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class MemoryMessage {
+
+    /** The contents of the message. */
+    final byte[] data;
+
+    /** The port the message was sent from. */
+    final int source;
+
+    /** The port the message is addressed to. */
+    final int destination;
+
+    /**
+     * Creates a new message.
+     *
+     * @param data        The contents of the message.
+     * @param source      The port the message was sent from.
+     * @param destination The port the message is addressed to.
+     */
+    MemoryMessage(byte[] data, int source, int destination) {
+        this.data = data;
+        this.source = source;
+        this.destination = destination;
+    }
+}
@@ -0,0 +1,74 @@
+import java.net.BindException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory stand-in for the loopback network. Transports bound to a network
+ * can send messages to each other by port number, without any sockets, as long
+ * as they are in the same JVM. Like UDP, a message sent to a port nobody is
+ * bound to is dropped.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class MemoryNetwork {
+
+    /** The network shared by every in-memory transport opened through Transport.open. */
+    public static final MemoryNetwork SYSTEM = new MemoryNetwork();
+
+    /** The transport bound to each port. */
+    private final ConcurrentHashMap<Integer, MemoryTransport> endpoints;
+
+    /** Creates a new network with nothing bound to it. */
+    public MemoryNetwork() {
+        this.endpoints = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Opens a transport bound to each of the given ports.
+     *
+     * @param ports The ports to bind to, which may be none if the transport is only
+     *              used for sending.
+     * @return The opened transport.
+     * @throws BindException If one of the ports is already in use.
+     */
+    public MemoryTransport bind(int... ports) throws BindException {
+        MemoryTransport transport = new MemoryTransport(this, ports);
+        for (int i = 0; i < ports.length; i++) {
+            if (this.endpoints.putIfAbsent(ports[i], transport) != null) {
+                for (int j = 0; j < i; j++) {
+                    this.endpoints.remove(ports[j], transport);
+                }
+                throw new BindException("Port " + ports[i] + " is already in use");
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * Delivers a message to the transport bound to a port, or drops it if there
+     * is none.
+     *
+     * @param port    The port the message is addressed to.
+     * @param message The message to deliver.
+     */
+    void deliver(int port, MemoryMessage message) {
+        MemoryTransport transport = this.endpoints.get(port);
+        if (transport != null) {
+            transport.enqueue(message);
+        }
+    }
+
+    /**
+     * Frees a port so it can be bound again.
+     *
+     * @param port      The port to free.
+     * @param transport The transport that is bound to the port.
+     */
+    void unbind(int port, MemoryTransport transport) {
+        this.endpoints.remove(port, transport);
+    }
+}
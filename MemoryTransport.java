@@ -0,0 +1,85 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Passes messages through in-memory queues instead of sockets. Every message is
+ * copied on send, so the sender can reuse its buffer straight away just like it
+ * could with UDP. Any number of threads may send to a transport without
+ * blocking each other, but only one thread may receive from it.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class MemoryTransport implements Transport {
+
+    /** The network this transport is bound to. */
+    private final MemoryNetwork network;
+
+    /** The ports this transport is bound to. */
+    private final int[] ports;
+
+    /** The messages that arrived on any of the bound ports, in arrival order. */
+    private final MpscMessageQueue<MemoryMessage> inbox;
+
+    /** The port the last received message was sent from. */
+    private int sourcePort;
+
+    /**
+     * Creates a transport on a network. Use MemoryNetwork.bind to open one.
+     *
+     * @param network The network the transport is bound to.
+     * @param ports   The ports the transport is bound to.
+     */
+    MemoryTransport(MemoryNetwork network, int[] ports) {
+        this.network = network;
+        this.ports = ports.clone();
+        this.inbox = new MpscMessageQueue<>();
+    }
+
+    @Override
+    public void send(ByteBuffer message, int port) {
+        byte[] data = new byte[message.remaining()];
+        message.get(data);
+        int source = this.ports.length > 0 ? this.ports[0] : 0;
+        this.network.deliver(port, new MemoryMessage(data, source, port));
+    }
+
+    @Override
+    public int receive(ByteBuffer into, long timeoutMillis) {
+        MemoryMessage message = timeoutMillis == 0 ? this.inbox.getMessage() : this.inbox.getMessage(timeoutMillis);
+        if (message == null) {
+            return -1;
+        }
+
+        // Like UDP, whatever does not fit in the buffer is lost
+        into.clear();
+        into.put(message.data, 0, Math.min(message.data.length, into.remaining()));
+        into.flip();
+        this.sourcePort = message.source;
+        return message.destination;
+    }
+
+    @Override
+    public int sourcePort() {
+        return this.sourcePort;
+    }
+
+    @Override
+    public void close() {
+        for (int port : this.ports) {
+            this.network.unbind(port, this);
+        }
+    }
+
+    /**
+     * Adds a message that arrived on one of the bound ports to the inbox.
+     *
+     * @param message The message that arrived.
+     */
+    void enqueue(MemoryMessage message) {
+        this.inbox.putMessage(message);
+    }
+}
@@ -0,0 +1,70 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the in-memory transport.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class MemoryTransportTest {
+
+    /**
+     * Tests that a message arrives on the port it was sent to, with its sender's
+     * port, and that the sender's buffer can be reused straight away.
+     */
+    @Test
+    void testSendAndReceive() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport sender = network.bind(1000);
+        Transport receiver = network.bind(2000, 3000);
+
+        ByteBuffer message = ByteBuffer.wrap(new byte[] { 1, 2, 3 });
+        sender.send(message, 3000);
+        message.put(0, (byte) 9);
+
+        ByteBuffer into = ByteBuffer.allocate(10);
+        assertEquals(3000, receiver.receive(into, 1000));
+        assertEquals(1000, receiver.sourcePort());
+        assertEquals(3, into.remaining());
+        assertEquals(1, into.get(0));
+    }
+
+    /**
+     * Tests that receiving times out when nothing is sent, and that messages to
+     * ports nobody is bound to are dropped.
+     */
+    @Test
+    void testTimeoutAndDrop() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport transport = network.bind(1000);
+        transport.send(ByteBuffer.allocate(4), 4000);
+
+        assertEquals(-1, transport.receive(ByteBuffer.allocate(10), 20));
+    }
+
+    /**
+     * Tests that a port can only be bound once at a time.
+     */
+    @Test
+    void testBindTwice() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport transport = network.bind(1000);
+        assertThrows(BindException.class, () -> network.bind(2000, 1000));
+
+        // The failed bind must not have kept the other port
+        network.bind(2000);
+
+        transport.close();
+        network.bind(1000);
+    }
+}
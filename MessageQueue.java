@@ -1,4 +1,7 @@
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a simple message queue for communication between the Floor
@@ -7,6 +10,15 @@ import java.util.ArrayList;
  * Elevator messages.
  * This class ensures thread-safe operations for adding and retrieving messages.
  *
+ * Messages are kept in a circular array that doubles in size when it fills up,
+ * so taking a message never shifts the others along. Waiting consumers and
+ * producers wait on separate conditions, and each message only wakes one of
+ * them.
+ *
+ * A queue can be given a capacity, in which case producers wait for room once
+ * it is full. This stops a slow consumer from letting the queue grow without
+ * limit.
+ *
  * @author Saja Fawagreh, 101217326
  * @author Javeria Sohail, 101197163
  * @author Matteo Golin, 101220709
@@ -16,46 +28,218 @@ import java.util.ArrayList;
  */
 public class MessageQueue<T> {
 
+    /** The number of messages the queue can hold before it first grows. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The most messages any queue can hold, which is the largest array Java allows. */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /** The most messages this queue can hold before producers have to wait. */
+    private final int capacity;
+
     /**
-     * Queue for messages.
+     * Circular buffer of messages.
      */
-    private ArrayList<T> messages;
+    private Object[] messages;
+
+    /** The index of the first message in the buffer. */
+    private int head;
+
+    /** The number of messages in the buffer. */
+    private int count;
+
+    /** Guards every access to the buffer. */
+    private final ReentrantLock lock;
+
+    /** Signalled when a message is put into an empty queue. */
+    private final Condition notEmpty;
+
+    /** Signalled when a message is taken from a full queue. */
+    private final Condition notFull;
 
     /**
      * Constructor for the MessageQueue class. Initializes the queues.
      */
     public MessageQueue() {
-        this.messages = new ArrayList<T>();
+        this(MAX_CAPACITY);
+    }
+
+    /**
+     * Constructor for a MessageQueue that holds a limited number of messages.
+     *
+     * @param capacity The most messages the queue can hold before producers have
+     *                 to wait.
+     */
+    public MessageQueue(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Queue capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        this.capacity = capacity;
+        this.messages = new Object[Math.min(INITIAL_CAPACITY, capacity)];
+        this.lock = new ReentrantLock();
+        this.notEmpty = this.lock.newCondition();
+        this.notFull = this.lock.newCondition();
+    }
+
+    /**
+     * Puts a message into the queue.
+     * Waits if the queue is full until a message is taken. Interrupts do not stop
+     * the wait, but are still reported afterwards.
+     *
+     * @param message The message to be added to the queue.
+     */
+    public void putMessage(T message) {
+        this.lock.lock();
+        try {
+            while (this.count == this.capacity) {
+                this.notFull.awaitUninterruptibly();
+            }
+            this.enqueue(message);
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
      * Puts a message into the queue.
-     * Waits if the queue is not empty until it becomes empty.
+     * Waits at most the given time for room if the queue is full.
+     *
+     * @param message       The message to be added to the queue.
+     * @param timeoutMillis The longest time to wait in milliseconds.
+     * @return True if the message was added, false if there was no room in time
+     *         or the wait was interrupted.
+     */
+    public boolean putMessage(T message, long timeoutMillis) {
+        this.lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (this.count == this.capacity) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    remaining = this.notFull.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            this.enqueue(message);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Puts a message into the queue if there is room for it, without waiting.
      *
      * @param message The message to be added to the queue.
+     * @return True if the message was added, false if the queue is full.
      */
-    public synchronized void putMessage(T message) {
-        this.messages.add(message);
-        notifyAll();
+    public boolean tryPutMessage(T message) {
+        this.lock.lock();
+        try {
+            if (this.count == this.capacity) {
+                return false;
+            }
+            this.enqueue(message);
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
      * Retrieves a message from the queue.
      * Waits if the queue is empty until a message is available.
      *
-     * @return The last message from the queue.
+     * @return The first message from the queue, or null if interrupted while
+     *         waiting.
      */
-    public synchronized T getMessage() {
-        while (this.messages.isEmpty()) {
-            try {
-                wait();
-            } catch (InterruptedException e) {
-                return null;
+    public T getMessage() {
+        this.lock.lock();
+        try {
+            while (this.count == 0) {
+                try {
+                    this.notEmpty.await();
+                } catch (InterruptedException e) {
+                    return null;
+                }
             }
+            return this.dequeue();
+        } finally {
+            this.lock.unlock();
         }
+    }
 
-        notifyAll();
-        return this.messages.removeFirst();
+    /**
+     * Retrieves a message from the queue.
+     * Waits at most the given time for a message to become available.
+     *
+     * @param timeoutMillis The longest time to wait in milliseconds.
+     * @return The first message from the queue, or null if none arrived in time.
+     */
+    public T getMessage(long timeoutMillis) {
+        this.lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (this.count == 0) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                try {
+                    remaining = this.notEmpty.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    return null;
+                }
+            }
+            return this.dequeue();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Moves every waiting message, up to a limit, into a collection in one go.
+     * Never waits, so a consumer will usually call getMessage first to wait for
+     * the first message and then drain whatever else has arrived.
+     *
+     * @param into The collection to add the messages to, in queue order.
+     * @param max  The most messages to move.
+     * @return The number of messages moved.
+     */
+    public int drainTo(Collection<? super T> into, int max) {
+        this.lock.lock();
+        try {
+            int drained = 0;
+            while (drained < max && this.count > 0) {
+                into.add(this.take());
+                drained++;
+            }
+
+            // Each freed slot can let one waiting producer in
+            for (int i = 0; i < drained && this.lock.hasWaiters(this.notFull); i++) {
+                this.notFull.signal();
+            }
+            return drained;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of messages waiting in the queue.
+     *
+     * @return The number of messages.
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.count;
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
@@ -64,6 +248,74 @@ public class MessageQueue<T> {
      * @return True if empty, false otherwise.
      */
     public boolean isEmpty() {
-        return this.messages.isEmpty();
+        this.lock.lock();
+        try {
+            return this.count == 0;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a message to the end of the buffer, growing it if needed. Must be
+     * called with the lock held and room in the queue.
+     *
+     * @param message The message to add.
+     */
+    private void enqueue(T message) {
+        if (this.count == this.messages.length) {
+            this.grow();
+        }
+        int tail = this.head + this.count;
+        if (tail >= this.messages.length) {
+            tail -= this.messages.length;
+        }
+        this.messages[tail] = message;
+        this.count++;
+        this.notEmpty.signal();
+    }
+
+    /**
+     * Takes the first message out of the buffer and wakes a waiting producer.
+     * Must be called with the lock held and at least one message in the buffer.
+     *
+     * @return The first message.
+     */
+    private T dequeue() {
+        T message = this.take();
+        this.notFull.signal();
+        return message;
+    }
+
+    /**
+     * Takes the first message out of the buffer. Must be called with the lock
+     * held and at least one message in the buffer.
+     *
+     * @return The first message.
+     */
+    @SuppressWarnings("unchecked")
+    private T take() {
+        T message = (T) this.messages[this.head];
+        this.messages[this.head] = null; // Let the message be garbage collected
+        if (++this.head == this.messages.length) {
+            this.head = 0;
+        }
+        this.count--;
+        return message;
+    }
+
+    /**
+     * Doubles the size of the buffer, up to the queue's capacity, moving the
+     * messages to the front of the new buffer in order. Must be called with the
+     * lock held.
+     */
+    private void grow() {
+        int capacity = (int) Math.min((long) this.messages.length * 2, this.capacity);
+        Object[] grown = new Object[capacity];
+        int firstPart = Math.min(this.count, this.messages.length - this.head);
+        System.arraycopy(this.messages, this.head, grown, 0, firstPart);
+        System.arraycopy(this.messages, 0, grown, firstPart, this.count - firstPart);
+        this.messages = grown;
+        this.head = 0;
     }
 }
@@ -4,6 +4,9 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Test suite to cover the functionality of the message queues.
  *
@@ -97,4 +100,128 @@ class MessageQueueTest {
 
         assertTrue(this.queue.isEmpty());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a timed get returns a waiting message, and gives up with null
+     * once the queue has stayed empty for the whole timeout.
+     */
+    @Test
+    void testTimedGet() {
+        this.queue.putMessage("Waiting");
+        assertEquals("Waiting", this.queue.getMessage(1000));
+
+        long start = System.currentTimeMillis();
+        assertNull(this.queue.getMessage(50));
+        assertTrue(System.currentTimeMillis() - start >= 50);
+    }
+
+    /**
+     * Tests that messages keep their order when the queue wraps around the end of
+     * its buffer and then grows.
+     */
+    @Test
+    void testOrderingAcrossWrapAndGrow() {
+        int next = 0;
+        int expected = 0;
+
+        // Move the start of the queue part way through the buffer
+        for (int i = 0; i < 10; i++) {
+            this.queue.putMessage(String.valueOf(next++));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.valueOf(expected++), this.queue.getMessage());
+        }
+
+        // Fill it past its starting size so that it wraps and grows
+        for (int i = 0; i < 100; i++) {
+            this.queue.putMessage(String.valueOf(next++));
+        }
+        while (expected < next) {
+            assertEquals(String.valueOf(expected++), this.queue.getMessage());
+        }
+        assertTrue(this.queue.isEmpty());
+    }
+
+    /**
+     * Tests that every waiting consumer is woken once for its own message, even
+     * though each message only wakes one consumer.
+     */
+    @Test
+    void testEveryWaiterGetsAMessage() throws InterruptedException {
+        int consumers = 4;
+        String[] received = new String[consumers];
+        Thread[] threads = new Thread[consumers];
+        for (int i = 0; i < consumers; i++) {
+            int id = i;
+            threads[i] = new Thread(() -> received[id] = this.queue.getMessage(5000));
+            threads[i].start();
+        }
+
+        for (int i = 0; i < consumers; i++) {
+            this.queue.putMessage("Message " + i);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (String message : received) {
+            assertNotNull(message);
+        }
+    }
+
+    /**
+     * Tests that a full bounded queue refuses non-blocking and timed puts until
+     * a message is taken.
+     */
+    @Test
+    void testBoundedPuts() {
+        MessageQueue<String> bounded = new MessageQueue<>(2);
+        assertTrue(bounded.tryPutMessage("1"));
+        assertTrue(bounded.putMessage("2", 0));
+        assertFalse(bounded.tryPutMessage("3"));
+        assertFalse(bounded.putMessage("3", 20));
+        assertEquals(2, bounded.size());
+
+        assertEquals("1", bounded.getMessage());
+        assertTrue(bounded.tryPutMessage("3"));
+        assertEquals("2", bounded.getMessage());
+        assertEquals("3", bounded.getMessage());
+    }
+
+    /**
+     * Tests that a producer blocked on a full queue continues once the consumer
+     * drains it.
+     */
+    @Test
+    void testBlockedPutResumesAfterDrain() throws InterruptedException {
+        MessageQueue<String> bounded = new MessageQueue<>(1);
+        bounded.putMessage("1");
+        Thread producer = new Thread(() -> bounded.putMessage("2"));
+        producer.start();
+
+        Thread.sleep(50); // Give the producer time to block
+        assertTrue(producer.isAlive());
+
+        ArrayList<String> drained = new ArrayList<>();
+        assertEquals(1, bounded.drainTo(drained, 10));
+        producer.join(5000);
+        assertFalse(producer.isAlive());
+        assertEquals("2", bounded.getMessage(1000));
+    }
+
+    /**
+     * Tests that draining moves at most the given number of messages, in order.
+     */
+    @Test
+    void testDrainTo() {
+        for (int i = 0; i < 5; i++) {
+            this.queue.putMessage(String.valueOf(i));
+        }
+
+        ArrayList<String> drained = new ArrayList<>();
+        assertEquals(3, this.queue.drainTo(drained, 3));
+        assertEquals(List.of("0", "1", "2"), drained);
+        assertEquals(2, this.queue.drainTo(drained, 10));
+        assertEquals(5, drained.size());
+        assertTrue(this.queue.isEmpty());
+    }
+}
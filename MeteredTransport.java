@@ -0,0 +1,146 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Counts the messages sent and received through another transport, per port.
+ * Every transport opened with Transport.open is wrapped in one, so the counts
+ * are served with the rest of the metrics.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class MeteredTransport implements Transport {
+
+    /** The transport carrying the messages. */
+    private final Transport transport;
+
+    /** The number of messages received on each port. */
+    private final PortCounters received;
+
+    /** The number of messages sent to each port. */
+    private final PortCounters sent;
+
+    /**
+     * Creates a transport that counts the messages through another.
+     *
+     * @param transport The transport carrying the messages.
+     */
+    public MeteredTransport(Transport transport) {
+        this.transport = transport;
+        this.received = new PortCounters("transport_packets_received_total",
+                "Messages received, by the port they arrived on.");
+        this.sent = new PortCounters("transport_packets_sent_total", "Messages sent, by the port they were sent to.");
+    }
+
+    @Override
+    public void send(ByteBuffer message, int port) throws IOException {
+        this.transport.send(message, port);
+        this.sent.get(port).increment();
+    }
+
+    @Override
+    public int receive(ByteBuffer into, long timeoutMillis) throws IOException {
+        int port = this.transport.receive(into, timeoutMillis);
+        if (port >= 0) {
+            this.received.get(port).increment();
+        }
+        return port;
+    }
+
+    @Override
+    public int sourcePort() {
+        return this.transport.sourcePort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.transport.close();
+    }
+}
+
+/**
+ * The counters of one metric for each port, found without allocating or locking
+ * once a port has been seen. A transport only talks to a few ports, so they are
+ * kept in short arrays that are copied whenever a port is added.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class PortCounters {
+
+    /** The name of the metric. */
+    private final String name;
+
+    /** What the metric counts. */
+    private final String help;
+
+    /** The ports seen so far. Always replaced before counters, and never shorter. */
+    private volatile int[] ports;
+
+    /** The counter of each port in ports. */
+    private volatile Counter[] counters;
+
+    /**
+     * Creates counters with no ports yet.
+     *
+     * @param name The name of the metric.
+     * @param help What the metric counts.
+     */
+    PortCounters(String name, String help) {
+        this.name = name;
+        this.help = help;
+        this.ports = new int[0];
+        this.counters = new Counter[0];
+    }
+
+    /**
+     * Gets the counter of a port, registering it if the port is new.
+     *
+     * @param port The port.
+     * @return The port's counter.
+     */
+    Counter get(int port) {
+        // Reading counters first means ports has an entry for every counter
+        Counter[] counters = this.counters;
+        int[] ports = this.ports;
+        for (int i = 0; i < counters.length; i++) {
+            if (ports[i] == port) {
+                return counters[i];
+            }
+        }
+        return this.add(port);
+    }
+
+    /**
+     * Registers the counter of a port, unless another thread just has.
+     *
+     * @param port The port.
+     * @return The port's counter.
+     */
+    private synchronized Counter add(int port) {
+        int[] ports = this.ports;
+        for (int i = 0; i < this.counters.length; i++) {
+            if (ports[i] == port) {
+                return this.counters[i];
+            }
+        }
+        Counter counter = Metrics.counter(this.name, this.help, "port", Integer.toString(port));
+        int length = this.counters.length;
+        int[] morePorts = Arrays.copyOf(ports, length + 1);
+        morePorts[length] = port;
+        Counter[] moreCounters = Arrays.copyOf(this.counters, length + 1);
+        moreCounters[length] = counter;
+        this.ports = morePorts;
+        this.counters = moreCounters;
+        return counter;
+    }
+}
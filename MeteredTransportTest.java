@@ -0,0 +1,57 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the MeteredTransport class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class MeteredTransportTest {
+
+    /**
+     * Gets the count of messages through a port.
+     *
+     * @param name The name of the metric.
+     * @param port The port.
+     * @return The count.
+     */
+    private static long count(String name, int port) {
+        return Metrics.counter(name, "", "port", Integer.toString(port)).getAsLong();
+    }
+
+    /**
+     * Tests that messages are counted by the port they were sent to and arrived
+     * on, and that timed-out receives are not counted.
+     */
+    @Test
+    void testCounts() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport sender = new MeteredTransport(network.bind(5100));
+        Transport receiver = new MeteredTransport(network.bind(5200, 5300));
+
+        sender.send(ByteBuffer.allocate(4), 5200);
+        sender.send(ByteBuffer.allocate(4), 5300);
+        sender.send(ByteBuffer.allocate(4), 5300);
+
+        ByteBuffer into = ByteBuffer.allocate(10);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(receiver.receive(into, 1000) > 0);
+            assertEquals(5100, receiver.sourcePort());
+        }
+        assertEquals(-1, receiver.receive(into, 20));
+
+        assertEquals(1, count("transport_packets_sent_total", 5200));
+        assertEquals(2, count("transport_packets_sent_total", 5300));
+        assertEquals(1, count("transport_packets_received_total", 5200));
+        assertEquals(2, count("transport_packets_received_total", 5300));
+    }
+}
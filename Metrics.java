@@ -0,0 +1,367 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Keeps the process's counters, gauges and histograms so they can be watched
+ * while the system runs. Every metric has a name, a line of help and optionally
+ * labels telling apart the series of the same metric, e.g. one per port or per
+ * elevator. Registering the same name and labels again gives back the same
+ * counter or histogram, so any class can look up a metric by name.
+ *
+ * The metrics are served over HTTP on the loopback interface at `/metrics`, in
+ * the Prometheus text format, once `serve` is called. Each subsystem does this
+ * when the `metrics.port` system property is set, e.g. `-Dmetrics.port=9400`.
+ * Histograms are served as summaries, with their 50th, 90th, 99th and 99.9th
+ * percentiles.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class Metrics {
+
+    /** The system property that sets the port metrics are served on. */
+    public static final String PORT_PROPERTY = "metrics.port";
+
+    /** The path metrics are served at. */
+    public static final String PATH = "/metrics";
+
+    /** The content type of the Prometheus text format. */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /** The quantiles served for each histogram. */
+    static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    /** The log for the metrics server. */
+    private static final Log LOG = Log.get("Metrics");
+
+    /** Every metric registered, by name, in the order they are served in. */
+    private static final ConcurrentSkipListMap<String, MetricFamily> FAMILIES = new ConcurrentSkipListMap<>();
+
+    /** The server serving the metrics, or null if they are not being served. */
+    private static HttpServer server;
+
+    /** Only has static methods. */
+    private Metrics() {
+    }
+
+    /**
+     * Gets a counter, registering it if it is new.
+     *
+     * @param name   The name of the metric, ending in `_total`.
+     * @param help   What the metric counts.
+     * @param labels Pairs of label names and values, e.g. `"port", "2002"`.
+     * @return The counter.
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").series.computeIfAbsent(labels(labels), l -> new Counter());
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge with the same name and labels.
+     *
+     * @param name   The name of the metric.
+     * @param help   What the metric measures.
+     * @param value  Reads the current value whenever the metrics are served. It
+     *               is called from the server's thread.
+     * @param labels Pairs of label names and values, e.g. `"elevator", "3"`.
+     */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, help, "gauge").series.put(labels(labels), value);
+    }
+
+    /**
+     * Gets a histogram, registering it if it is new.
+     *
+     * @param name   The name of the metric, ending in its unit, e.g. `_seconds`.
+     * @param help   What the metric measures.
+     * @param unit   The size of one recorded unit in the metric's unit, e.g. 1e-9
+     *               to record nanoseconds and serve seconds.
+     * @param labels Pairs of label names and values.
+     * @return The histogram.
+     */
+    public static LatencyHistogram summary(String name, String help, double unit, String... labels) {
+        Summary summary = (Summary) family(name, help, "summary").series.computeIfAbsent(labels(labels),
+                l -> new Summary(new LatencyHistogram(), unit));
+        return summary.histogram;
+    }
+
+    /**
+     * Registers an existing histogram, replacing any histogram with the same name
+     * and labels.
+     *
+     * @param name      The name of the metric, ending in its unit, e.g. `_seconds`.
+     * @param help      What the metric measures.
+     * @param unit      The size of one recorded unit in the metric's unit, e.g.
+     *                  1e-3 to record milliseconds and serve seconds.
+     * @param histogram The histogram.
+     * @param labels    Pairs of label names and values.
+     */
+    public static void summary(String name, String help, double unit, LatencyHistogram histogram, String... labels) {
+        family(name, help, "summary").series.put(labels(labels), new Summary(histogram, unit));
+    }
+
+    /**
+     * Writes every metric in the Prometheus text format.
+     *
+     * @return The metrics, one line per series.
+     */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (MetricFamily family : FAMILIES.values()) {
+            family.writeTo(out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Starts serving the metrics, unless they are already being served. The
+     * server only listens on the loopback interface, and does not keep the
+     * program alive on its own.
+     *
+     * @param port The port to serve on, or 0 for any free port.
+     * @return The address the metrics are served at.
+     * @throws IOException If the port is already in use.
+     */
+    public static synchronized InetSocketAddress serve(int port) throws IOException {
+        if (server != null) {
+            return server.getAddress();
+        }
+        HttpServer created = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        created.createContext(PATH, Metrics::handle);
+
+        // The server's thread is a daemon only if the thread starting it is one
+        Thread starter = new Thread(created::start, "Metrics server");
+        starter.setDaemon(true);
+        starter.start();
+        try {
+            starter.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        server = created;
+        LOG.info("Serving metrics at http://" + created.getAddress().getHostString() + ":"
+                + created.getAddress().getPort() + PATH);
+        return created.getAddress();
+    }
+
+    /**
+     * Starts serving the metrics on the port set by the `metrics.port` property.
+     * Does nothing if the property is not set, and only warns if the port is
+     * taken, so the subsystem can run without metrics.
+     */
+    public static void serveFromProperty() {
+        String port = System.getProperty(PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        try {
+            serve(Integer.parseInt(port));
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.warn("Could not serve metrics on port " + port + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Answers a request for the metrics.
+     *
+     * @param exchange The request and its response.
+     */
+    private static void handle(HttpExchange exchange) throws IOException {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Gets the family of series sharing a name, registering it if it is new.
+     *
+     * @param name The name of the metric.
+     * @param help What the metric measures.
+     * @param type The Prometheus type of the metric.
+     * @return The family.
+     * @throws IllegalArgumentException If the name is already used by a metric of
+     *                                  another type.
+     */
+    private static MetricFamily family(String name, String help, String type) {
+        MetricFamily family = FAMILIES.computeIfAbsent(name, n -> new MetricFamily(n, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException(name + " is already a " + family.type);
+        }
+        return family;
+    }
+
+    /**
+     * Formats labels the way they are served.
+     *
+     * @param labels Pairs of label names and values.
+     * @return The labels, e.g. `port="2002",kind="udp"`, or an empty string if
+     *         there are none.
+     * @throws IllegalArgumentException If a label has no value.
+     */
+    private static String labels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Every label needs a value");
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(labels[i]).append("=\"");
+            for (char c : labels[i + 1].toCharArray()) {
+                switch (c) {
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '"':
+                        out.append("\\\"");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    default:
+                        out.append(c);
+                }
+            }
+            out.append('"');
+        }
+        return out.toString();
+    }
+}
+
+/**
+ * A histogram served as a summary.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class Summary {
+
+    /** The histogram. */
+    final LatencyHistogram histogram;
+
+    /** The size of one recorded unit in the metric's unit. */
+    final double unit;
+
+    /**
+     * Creates a summary of a histogram.
+     *
+     * @param histogram The histogram.
+     * @param unit      The size of one recorded unit in the metric's unit.
+     */
+    Summary(LatencyHistogram histogram, double unit) {
+        this.histogram = histogram;
+        this.unit = unit;
+    }
+}
+
+/**
+ * Every series of a metric, by their labels.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class MetricFamily {
+
+    /** The name of the metric. */
+    final String name;
+
+    /** What the metric measures. */
+    final String help;
+
+    /** The Prometheus type of the metric: counter, gauge or summary. */
+    final String type;
+
+    /** Each series, by its formatted labels: Counters, DoubleSuppliers or Summaries. */
+    final ConcurrentSkipListMap<String, Object> series;
+
+    /**
+     * Creates a metric with no series.
+     *
+     * @param name The name of the metric.
+     * @param help What the metric measures.
+     * @param type The Prometheus type of the metric.
+     */
+    MetricFamily(String name, String help, String type) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.series = new ConcurrentSkipListMap<>();
+    }
+
+    /**
+     * Writes the metric's help, type and every series.
+     *
+     * @param out Where to write to.
+     */
+    void writeTo(StringBuilder out) {
+        out.append("# HELP ").append(this.name).append(' ').append(this.help).append('\n');
+        out.append("# TYPE ").append(this.name).append(' ').append(this.type).append('\n');
+        for (Map.Entry<String, Object> entry : this.series.entrySet()) {
+            String labels = entry.getKey();
+            Object series = entry.getValue();
+            if (series instanceof Counter) {
+                this.sample(out, "", labels, ((Counter) series).getAsLong());
+            } else if (series instanceof DoubleSupplier) {
+                this.sample(out, "", labels, ((DoubleSupplier) series).getAsDouble());
+            } else if (series instanceof Summary) {
+                Summary summary = (Summary) series;
+                LatencyHistogram histogram = summary.histogram;
+                for (double quantile : Metrics.QUANTILES) {
+                    String label = "quantile=\"" + quantile + "\"";
+                    this.sample(out, "", labels.isEmpty() ? label : labels + "," + label,
+                            histogram.getPercentile(quantile * 100) * summary.unit);
+                }
+                this.sample(out, "_sum", labels, histogram.getSum() * summary.unit);
+                this.sample(out, "_count", labels, histogram.getCount());
+            }
+        }
+    }
+
+    /**
+     * Writes one line of the metric.
+     *
+     * @param out    Where to write to.
+     * @param suffix The ending added to the metric's name, e.g. `_count`.
+     * @param labels The formatted labels.
+     * @param value  The value.
+     */
+    private void sample(StringBuilder out, String suffix, String labels, double value) {
+        out.append(this.name).append(suffix);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+}
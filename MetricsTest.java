@@ -0,0 +1,94 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the Metrics class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class MetricsTest {
+
+    /**
+     * Tests that counters with the same name and labels are shared, and are
+     * written one line per series.
+     */
+    @Test
+    void testCounter() {
+        Counter first = Metrics.counter("test_counter_total", "A test counter.", "port", "1");
+        assertSame(first, Metrics.counter("test_counter_total", "A test counter.", "port", "1"));
+        first.add(3);
+        Metrics.counter("test_counter_total", "A test counter.", "port", "2").increment();
+
+        String scraped = Metrics.scrape();
+        assertTrue(scraped.contains("# HELP test_counter_total A test counter.\n"));
+        assertTrue(scraped.contains("# TYPE test_counter_total counter\n"));
+        assertTrue(scraped.contains("test_counter_total{port=\"1\"} 3\n"));
+        assertTrue(scraped.contains("test_counter_total{port=\"2\"} 1\n"));
+        assertThrows(IllegalArgumentException.class, () -> Metrics.gauge("test_counter_total", "", () -> 0));
+    }
+
+    /**
+     * Tests that gauges are read when the metrics are written, and that label
+     * values are escaped.
+     */
+    @Test
+    void testGauge() {
+        int[] depth = { 4 };
+        Metrics.gauge("test_gauge", "A test gauge.", () -> depth[0], "queue", "a \"quoted\" name");
+        assertTrue(Metrics.scrape().contains("test_gauge{queue=\"a \\\"quoted\\\" name\"} 4\n"));
+        depth[0] = 7;
+        assertTrue(Metrics.scrape().contains("test_gauge{queue=\"a \\\"quoted\\\" name\"} 7\n"));
+        Metrics.gauge("test_gauge_fraction", "A test gauge.", () -> 0.25);
+        assertTrue(Metrics.scrape().contains("test_gauge_fraction 0.25\n"));
+    }
+
+    /**
+     * Tests that histograms are written as summaries in the metric's unit.
+     */
+    @Test
+    void testSummary() {
+        LatencyHistogram histogram = Metrics.summary("test_summary_seconds", "A test summary.", 1e-3);
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i * 1000);
+        }
+
+        String scraped = Metrics.scrape();
+        assertTrue(scraped.contains("# TYPE test_summary_seconds summary\n"));
+        assertTrue(scraped.contains("test_summary_seconds_count 10\n"));
+        assertTrue(scraped.contains("test_summary_seconds_sum 55\n"));
+        assertTrue(scraped.contains("test_summary_seconds{quantile=\"0.999\"} 10\n"));
+    }
+
+    /**
+     * Tests that the metrics are served over HTTP.
+     */
+    @Test
+    void testServe() throws IOException {
+        Metrics.counter("test_served_total", "A served counter.").increment();
+        InetSocketAddress address = Metrics.serve(0);
+        assertEquals(address, Metrics.serve(0)); // Only one server is started
+
+        URL url = URI.create("http://" + address.getHostString() + ":" + address.getPort() + Metrics.PATH).toURL();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("text/plain"));
+        try (InputStream in = connection.getInputStream()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(body.contains("test_served_total 1\n"));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A message queue for many producer threads and a single consumer thread, with
+ * the same methods as MessageQueue. Producers never take a lock: each put swaps
+ * its message onto the tail of a linked list in one atomic step, so elevator
+ * threads can publish to the same consumer without waiting on each other. The
+ * consumer parks when the queue is empty, and the next put wakes it.
+ *
+ * Only one thread may ever take messages from a queue.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class MpscMessageQueue<T> {
+
+    /** The last message put into the queue, which producers append after. */
+    private final AtomicReference<Node<T>> tail;
+
+    /**
+     * The node before the first message. Only the consumer moves it, but others
+     * may read it to check if the queue is empty.
+     */
+    private volatile Node<T> head;
+
+    /** The consumer thread if it is parked waiting for a message, or null. */
+    private volatile Thread waiter;
+
+    /** Creates an empty queue. */
+    public MpscMessageQueue() {
+        Node<T> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    /**
+     * Puts a message into the queue. Never blocks.
+     *
+     * @param message The message to be added to the queue.
+     */
+    public void putMessage(T message) {
+        Node<T> node = new Node<>(message);
+        Node<T> previous = this.tail.getAndSet(node);
+        previous.next = node; // Publishes the message to the consumer
+
+        Thread consumer = this.waiter;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Retrieves a message from the queue.
+     * Waits if the queue is empty until a message is available.
+     *
+     * @return The first message from the queue, or null if interrupted while
+     *         waiting.
+     */
+    public T getMessage() {
+        return this.take(false, 0);
+    }
+
+    /**
+     * Retrieves a message from the queue.
+     * Waits at most the given time for a message to become available.
+     *
+     * @param timeoutMillis The longest time to wait in milliseconds.
+     * @return The first message from the queue, or null if none arrived in time.
+     */
+    public T getMessage(long timeoutMillis) {
+        return this.take(true, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    /**
+     * Checks if the message queue is empty.
+     *
+     * @return True if empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.head.next == null;
+    }
+
+    /**
+     * Takes the first message, parking the consumer until one arrives.
+     *
+     * @param timed    True if the wait is limited by the deadline.
+     * @param deadline The System.nanoTime() to give up at.
+     * @return The first message, or null if the wait timed out or was interrupted.
+     */
+    private T take(boolean timed, long deadline) {
+        while (true) {
+            Node<T> first = this.head.next;
+            if (first != null) {
+                this.head = first;
+                T message = first.message;
+                first.message = null; // The node is the new stub, so let the message be garbage collected
+                return message;
+            }
+
+            // A producer has swapped the tail but not linked its node yet, which takes moments
+            if (this.tail.get() != this.head) {
+                Thread.onSpinWait();
+                continue;
+            }
+
+            // Announce that we are parking, then check once more so a put in between is not missed
+            this.waiter = Thread.currentThread();
+            if (this.head.next == null) {
+                if (!timed) {
+                    LockSupport.park(this);
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        this.waiter = null;
+                        return null;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+            }
+            this.waiter = null;
+
+            if (Thread.interrupted()) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A link in the list of messages.
+     */
+    private static final class Node<T> {
+
+        /** The message, or null once it has been taken. */
+        T message;
+
+        /** The next node, set once by the producer that appended it. */
+        volatile Node<T> next;
+
+        /**
+         * Creates a node holding a message.
+         *
+         * @param message The message.
+         */
+        Node(T message) {
+            this.message = message;
+        }
+    }
+}
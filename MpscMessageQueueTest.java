@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite to cover the functionality of the multi-producer, single-consumer
+ * message queue.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class MpscMessageQueueTest {
+
+    /**
+     * Tests that messages from a single producer come out in the order they were
+     * put in.
+     */
+    @Test
+    void testQueueOrdering() {
+        MpscMessageQueue<String> queue = new MpscMessageQueue<>();
+        assertTrue(queue.isEmpty());
+
+        String[] messages = {"1", "2", "3"};
+        for (String s : messages) {
+            queue.putMessage(s);
+        }
+        assertFalse(queue.isEmpty());
+
+        for (String s : messages) {
+            assertEquals(s, queue.getMessage());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Tests that a timed get gives up with null once the queue has stayed empty
+     * for the whole timeout.
+     */
+    @Test
+    void testTimedGet() {
+        MpscMessageQueue<String> queue = new MpscMessageQueue<>();
+        long start = System.currentTimeMillis();
+        assertNull(queue.getMessage(50));
+        assertTrue(System.currentTimeMillis() - start >= 50);
+    }
+
+    /**
+     * Tests that a consumer parked on an empty queue is woken by the next put.
+     */
+    @Test
+    void testParkedConsumerIsWoken() throws InterruptedException {
+        MpscMessageQueue<String> queue = new MpscMessageQueue<>();
+        String[] received = new String[1];
+        Thread consumer = new Thread(() -> received[0] = queue.getMessage());
+        consumer.start();
+
+        Thread.sleep(50); // Give the consumer time to park
+        queue.putMessage("Wake up");
+        consumer.join(5000);
+        assertEquals("Wake up", received[0]);
+    }
+
+    /**
+     * Tests that every message from many producers at once is received exactly
+     * once, and that each producer's messages keep their order.
+     */
+    @Test
+    void testManyProducers() throws InterruptedException {
+        MpscMessageQueue<int[]> queue = new MpscMessageQueue<>();
+        int producers = 4;
+        int perProducer = 10000;
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    queue.putMessage(new int[] { id, i });
+                }
+            });
+            threads[p].start();
+        }
+
+        int[] next = new int[producers];
+        for (int n = 0; n < producers * perProducer; n++) {
+            int[] message = queue.getMessage(5000);
+            assertNotNull(message);
+            assertEquals(next[message[0]]++, message[1]);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Packs several encoded ElevatorRequests into one UDP datagram, so that a rush
+ * of requests costs one packet instead of one per request.
+ *
+ * Frame layout: a marker byte, the number of requests as a 2-byte integer, then
+ * for each request its length as a 2-byte integer followed by its encoded
+ * bytes. The marker can never be mistaken for the version byte of a single
+ * encoded request, so receivers can accept either.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class RequestBatch {
+
+    /** The first byte of every batch frame. */
+    public static final byte MARKER = (byte) 0x81;
+
+    /** The length of the frame header in bytes. */
+    public static final int HEADER_LEN = 3;
+
+    /** The maximum length of a batch frame, which fits in a single Ethernet frame. */
+    public static final int MAX_LEN = 1400;
+
+    /** The buffer the frame is built in. */
+    private final ByteBuffer buffer;
+
+    /** The number of requests in the batch. */
+    private int count;
+
+    /** Creates a new, empty batch. */
+    public RequestBatch() {
+        this.buffer = ByteBuffer.allocate(MAX_LEN);
+        this.clear();
+    }
+
+    /**
+     * Adds a request to the batch if there is room for it.
+     *
+     * @param request The request to be added.
+     * @return True if the request was added, false if the batch is full.
+     */
+    public boolean add(ElevatorRequest request) {
+        byte[] encoded = request.getBytes();
+        if (this.buffer.remaining() < 2 + encoded.length) {
+            return false;
+        }
+        this.buffer.putShort((short) encoded.length);
+        this.buffer.put(encoded);
+        this.count++;
+        this.buffer.putShort(1, (short) this.count);
+        return true;
+    }
+
+    /** Removes every request from the batch. */
+    public final void clear() {
+        this.buffer.clear();
+        this.buffer.put(MARKER);
+        this.buffer.putShort((short) 0);
+        this.count = 0;
+    }
+
+    /**
+     * Gets the number of requests in the batch.
+     *
+     * @return The number of requests.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Checks if the batch has no requests.
+     *
+     * @return True if empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.count == 0;
+    }
+
+    /**
+     * Gets the array holding the encoded frame.
+     *
+     * @return The array holding the frame, from index 0 up to length().
+     */
+    public byte[] array() {
+        return this.buffer.array();
+    }
+
+    /**
+     * Gets the length of the encoded frame.
+     *
+     * @return The length of the frame in bytes.
+     */
+    public int length() {
+        return this.buffer.position();
+    }
+
+    /**
+     * Checks if a received message is a batch frame rather than a single request.
+     *
+     * @param frame  The buffer holding the message.
+     * @param offset The offset of the message within the buffer.
+     * @return True if the message is a batch, false otherwise.
+     */
+    public static boolean isBatch(ByteBuffer frame, int offset) {
+        return frame.get(offset) == MARKER;
+    }
+
+    /**
+     * Reads the number of requests in a batch frame.
+     *
+     * @param frame  The buffer holding the frame.
+     * @param offset The offset of the frame within the buffer.
+     * @return The number of requests in the batch.
+     */
+    public static int count(ByteBuffer frame, int offset) {
+        return frame.getShort(offset + 1);
+    }
+}
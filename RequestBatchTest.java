@@ -0,0 +1,75 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the functionality of the RequestBatch class.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class RequestBatchTest {
+
+    /**
+     * Check that every request added to a batch can be read back from the frame.
+     */
+    @Test
+    void testAddAndRead() {
+        ElevatorRequest first = new ElevatorRequest("14:05:15.0 2 Up 4");
+        ElevatorRequest second = new ElevatorRequest("14:05:15.0 6 Down 1");
+        RequestBatch batch = new RequestBatch();
+        assertTrue(batch.isEmpty());
+        assertTrue(batch.add(first));
+        assertTrue(batch.add(second));
+        assertEquals(2, batch.size());
+
+        ByteBuffer frame = ByteBuffer.wrap(batch.array(), 0, batch.length());
+        assertTrue(RequestBatch.isBatch(frame, 0));
+        assertEquals(2, RequestBatch.count(frame, 0));
+        assertEquals(RequestBatch.HEADER_LEN + 2 * (2 + ElevatorRequest.ENCODED_LEN), batch.length());
+
+        ElevatorRequestView view = new ElevatorRequestView();
+        int offset = RequestBatch.HEADER_LEN;
+        assertEquals(ElevatorRequest.ENCODED_LEN, frame.getShort(offset));
+        assertEquals(first.toString(), view.wrap(frame, offset + 2).toString());
+        offset += 2 + ElevatorRequest.ENCODED_LEN;
+        assertEquals(ElevatorRequest.ENCODED_LEN, frame.getShort(offset));
+        assertEquals(second.toString(), view.wrap(frame, offset + 2).toString());
+    }
+
+    /**
+     * Check that a single encoded request is never mistaken for a batch.
+     */
+    @Test
+    void testSingleRequestIsNotBatch() {
+        ElevatorRequest request = new ElevatorRequest("14:05:15.0 2 Up 4");
+        assertFalse(RequestBatch.isBatch(ByteBuffer.wrap(request.getBytes()), 0));
+    }
+
+    /**
+     * Check that a full batch refuses more requests and can be reused once
+     * cleared.
+     */
+    @Test
+    void testFullAndClear() {
+        ElevatorRequest request = new ElevatorRequest("14:05:15.0 2 Up 4");
+        RequestBatch batch = new RequestBatch();
+        int fits = (RequestBatch.MAX_LEN - RequestBatch.HEADER_LEN) / (2 + ElevatorRequest.ENCODED_LEN);
+        for (int i = 0; i < fits; i++) {
+            assertTrue(batch.add(request));
+        }
+        assertFalse(batch.add(request));
+        assertEquals(fits, batch.size());
+
+        batch.clear();
+        assertTrue(batch.isEmpty());
+        assertEquals(RequestBatch.HEADER_LEN, batch.length());
+        assertEquals(0, RequestBatch.count(ByteBuffer.wrap(batch.array()), 0));
+    }
+}
@@ -1,6 +1,7 @@
 /**
  * This class encapsulates an ElevatorRequest to track its progression through the elevator system.
- * Specifically, it monitors whether the request has been picked up and dropped off at the designated floors.
+ * Specifically, it monitors whether the request has been picked up and dropped off at the designated floors, and
+ * when the passengers called the elevator, were assigned one, were picked up and were dropped off.
  * The class provides methods to update and query the state of the request regarding these two critical events.
  */
 public class RequestProgressWrapper {
@@ -14,6 +15,18 @@ public class RequestProgressWrapper {
     /** Indicates whether the request has been dropped off. */
     private boolean dropped_off;
 
+    /** The time the passengers called the elevator from their floor, in milliseconds on the elevator's clock. */
+    private long hall_call_time;
+
+    /** The time the request was assigned to the elevator, in milliseconds on the elevator's clock. */
+    private long assigned_time;
+
+    /** The time the passengers were picked up, in milliseconds on the elevator's clock. */
+    private long pickup_time;
+
+    /** The time the passengers were dropped off, in milliseconds on the elevator's clock. */
+    private long dropoff_time;
+
     /**
      * Constructs a new RequestProgressWrapper}around the provided ElevatorRequest, initializing
      * it with no progress (neither picked up nor dropped off).
@@ -21,9 +34,98 @@ public class RequestProgressWrapper {
      * @param request The ElevatorRequest to be tracked for progress.
      */
     public RequestProgressWrapper(ElevatorRequest request) {
+        this(request, 0);
+    }
+
+    /**
+     * Constructs a new RequestProgressWrapper around the provided ElevatorRequest, for a request whose hall call
+     * was only seen when it was assigned to the elevator.
+     *
+     * @param request      The ElevatorRequest to be tracked for progress.
+     * @param assignedTime The time the request was assigned to the elevator, in milliseconds.
+     */
+    public RequestProgressWrapper(ElevatorRequest request, long assignedTime) {
+        this(request, assignedTime, assignedTime);
+    }
+
+    /**
+     * Constructs a new RequestProgressWrapper around the provided ElevatorRequest, remembering when the passengers
+     * called the elevator and when it was assigned the request, so the time they spend waiting and riding can be
+     * measured once they are dropped off.
+     *
+     * @param request      The ElevatorRequest to be tracked for progress.
+     * @param hallCallTime The time the passengers called the elevator, in milliseconds.
+     * @param assignedTime The time the request was assigned to the elevator, in milliseconds.
+     */
+    public RequestProgressWrapper(ElevatorRequest request, long hallCallTime, long assignedTime) {
         this.request = request;
         this.picked_up = false;
         this.dropped_off = false;
+        this.hall_call_time = hallCallTime;
+        this.assigned_time = assignedTime;
+    }
+
+    /**
+     * Gets the time the passengers called the elevator from their floor.
+     *
+     * @return The time in milliseconds on the elevator's clock.
+     */
+    public long getHallCallTime() {
+        return this.hall_call_time;
+    }
+
+    /**
+     * Gets the time the request was assigned to the elevator.
+     *
+     * @return The time in milliseconds on the elevator's clock.
+     */
+    public long getAssignedTime() {
+        return this.assigned_time;
+    }
+
+    /**
+     * Gets the time the passengers were picked up.
+     *
+     * @return The time in milliseconds on the elevator's clock, or 0 if they have not been picked up.
+     */
+    public long getPickupTime() {
+        return this.pickup_time;
+    }
+
+    /**
+     * Gets the time the passengers were dropped off.
+     *
+     * @return The time in milliseconds on the elevator's clock, or 0 if they have not been dropped off.
+     */
+    public long getDropoffTime() {
+        return this.dropoff_time;
+    }
+
+    /**
+     * Gets how long the passengers waited at their floor, from calling the elevator to being picked up.
+     *
+     * @return The waiting time in milliseconds. Only meaningful once they have been picked up.
+     */
+    public long getWaitingTime() {
+        return this.pickup_time - this.hall_call_time;
+    }
+
+    /**
+     * Gets how long the passengers spent in the elevator, from being picked up to being dropped off.
+     *
+     * @return The ride time in milliseconds. Only meaningful once they have been dropped off.
+     */
+    public long getRideTime() {
+        return this.dropoff_time - this.pickup_time;
+    }
+
+    /**
+     * Gets the passengers' whole journey, from calling the elevator to being dropped off.
+     *
+     * @return The journey time in milliseconds. Only meaningful once they have been dropped off.
+     */
+    public long getJourneyTime() {
+        return this.dropoff_time - this.hall_call_time;
     }
 
     /**
@@ -71,15 +173,28 @@ public class RequestProgressWrapper {
      * @param floor The floor number that was visited.
      */
     public void updateProgress(int floor) {
+        this.updateProgress(floor, 0);
+    }
+
+    /**
+     * Updates the progress of the wrapped request based on a visited floor, remembering when the passengers were
+     * picked up and dropped off.
+     *
+     * @param floor The floor number that was visited.
+     * @param time  The time the floor was visited, in milliseconds on the elevator's clock.
+     */
+    public void updateProgress(int floor, long time) {
         // If the origin floor of the request has been visited, mark this request as picked up.
-        if (this.request.getOriginFloor() == floor) {
+        if (this.request.getOriginFloor() == floor && !this.picked_up) {
             this.picked_up = true;
+            this.pickup_time = time;
         }
 
         // If the destination floor of the request has been visited and the request has already been picked up,
         // mark this request as dropped off.
-        if (this.request.getDestinationFloor() == floor && this.picked_up) {
+        if (this.request.getDestinationFloor() == floor && this.picked_up && !this.dropped_off) {
             this.dropped_off = true;
+            this.dropoff_time = time;
             // The request is marked complete internally to reflect the true end-to-end completion.
             this.request.markComplete(); // This method needs to exist in ElevatorRequest to update its internal state.
         }
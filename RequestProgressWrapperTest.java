@@ -43,4 +43,30 @@ class RequestProgressWrapperTest {
         ElevatorRequest wrappedRequest = wrapper.getRequest();
         assertEquals(request, wrappedRequest);
     }
-}
\ No newline at end of file
+
+    /**
+     *  Test that the wrapper remembers when the request was called, assigned,
+     *  picked up and dropped off.
+     */
+    @Test
+    void testTimes() {
+        ElevatorRequest request = new ElevatorRequest(1, 4, 7, 2, 0, 7, 1, false);
+        RequestProgressWrapper wrapper = new RequestProgressWrapper(request, 1000, 1500);
+        assertEquals(1000, wrapper.getHallCallTime());
+        assertEquals(1500, wrapper.getAssignedTime());
+
+        // Passing the origin floor again does not move the pickup time
+        wrapper.updateProgress(4, 9000);
+        wrapper.updateProgress(4, 9500);
+        wrapper.updateProgress(7, 20000);
+        assertEquals(9000, wrapper.getPickupTime());
+        assertEquals(20000, wrapper.getDropoffTime());
+        assertEquals(8000, wrapper.getWaitingTime());
+        assertEquals(11000, wrapper.getRideTime());
+        assertEquals(19000, wrapper.getJourneyTime());
+
+        // Without a separate hall call, it is taken to be the assignment
+        assertEquals(1500, new RequestProgressWrapper(request, 1500).getHallCallTime());
+        assertEquals(0, new RequestProgressWrapper(request).getAssignedTime());
+    }
+}
@@ -0,0 +1,55 @@
+/**
+ * A simulation clock that follows the wall clock, optionally sped up by a
+ * constant factor. A factor of 1 is real time.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class ScaledClock implements SimulationClock {
+
+    /** How many times faster than the wall clock simulated time passes. */
+    private final double speedup;
+
+    /** The wall clock time in nanoseconds at which this clock was created. */
+    private final long start;
+
+    /**
+     * Creates a new clock.
+     *
+     * @param speedup How many times faster than the wall clock simulated time
+     *                passes.
+     * @throws IllegalArgumentException If the speed-up is not a positive number.
+     */
+    public ScaledClock(double speedup) {
+        if (!(speedup > 0) || Double.isInfinite(speedup)) {
+            throw new IllegalArgumentException("Speed-up must be a positive number, got " + speedup);
+        }
+        this.speedup = speedup;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Gets the speed-up factor of this clock.
+     *
+     * @return How many times faster than the wall clock simulated time passes.
+     */
+    public double getSpeedup() {
+        return this.speedup;
+    }
+
+    @Override
+    public long millis() {
+        return (long) ((System.nanoTime() - this.start) / 1_000_000.0 * this.speedup);
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(Math.round(millis / this.speedup));
+        }
+    }
+}
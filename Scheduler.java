@@ -1,12 +1,9 @@
-import java.net.DatagramSocket;
-import java.net.SocketException;
-import java.net.DatagramPacket;
 import java.io.IOException;
 
 /**
  * Represents a scheduler for an elevator system, responsible for assigning
  * elevators to requests based on their
- * current state and location. It listens for UDP messages from both floor and
+ * current state and location. It listens for messages from both floor and
  * elevator subsystems, routing requests
  * from floors to elevators and sending elevator status updates to the GUI. The
  * scheduler operates in a loop, handling
@@ -22,14 +19,22 @@ import java.io.IOException;
 
 public class Scheduler {
 
-    /** The current state of the Scheduler (starts in Idle). */
-    private static SchedulerState state = SchedulerState.Idle;
-
-    /** The port for sending and receiving messages. */
+    /** The port for receiving requests from and sending completions to the floor subsystem. */
     public static final int PORT = 2002;
 
-    /** The length of the buffer for receiving UDP messages. */
-    private static final int BUFFER_LEN = 100;
+    /** The port for exchanging messages with the elevator subsystem. */
+    public static final int ELEVATOR_PORT = 2005;
+
+    /** The number of threads decoding received messages. */
+    private static final int DECODE_WORKERS = 2;
+
+    /** How long choosing an elevator for each request took, in nanoseconds. */
+    static final LatencyHistogram SELECT_LATENCY = Metrics.summary("scheduler_select_elevator_seconds",
+            "Time taken to choose an elevator for a request.", 1e-9);
+
+    /** The number of requests assigned again because their elevator shut down. */
+    static final Counter REASSIGNMENTS = Metrics.counter("scheduler_reassignments_total",
+            "Requests assigned to another elevator after a timer fault shut theirs down.");
 
     /**
      * Maintains the status of each elevator in the system, including its current
@@ -38,111 +43,33 @@ public class Scheduler {
      */
     private static ElevatorStatus[] statuses = new ElevatorStatus[ElevatorSubsystem.NUM_ELEVATORS];
 
-    /** Executes the main logical loop of the Scheduler subsystem. */
     /**
-     * The main entry point of the scheduler application. It sets up a
-     * DatagramSocket for
-     * communication and continuously listens for messages from floor and elevator
-     * subsystems,
-     * processing each according to the scheduler's current state.
+     * The main entry point of the scheduler application. It listens for floor
+     * requests and elevator messages on separate ports, and hands them to a
+     * SchedulerPipeline, which receives, decodes, dispatches and sends messages
+     * on separate threads.
      *
      * @param args Command line arguments (not used).
-     * @throws SocketException If a socket could not be opened, or the socket could
-     *                         not bind to the specified port.
-     * @throws IOException     If an I/O error occurs.
+     * @throws IOException If a port could not be bound, or an I/O error occurs.
      */
-    public static void main(String[] args) throws SocketException, IOException {
-
-        // Create socket for receiving and sending
-        DatagramSocket channel = new DatagramSocket(PORT);
+    public static void main(String[] args) throws IOException {
+        Metrics.serveFromProperty();
 
-        // The message buffer for receiving new UDP messages
-        DatagramPacket message = null;
+        // Messages to the elevator subsystem must come from the elevator port, so it is bound first
+        Transport transport = Transport.open(ELEVATOR_PORT, PORT);
 
         // Pre-fill the elevator list with current floor values (ground floor).
         for (int i = 0; i < statuses.length; i++) {
             statuses[i] = new ElevatorStatus();
         }
 
-        // While there are still messages
-        while (true) {
-            switch (state) {
-
-                case SchedulerState.Idle:
-                    message = new DatagramPacket(new byte[BUFFER_LEN], BUFFER_LEN);
-                    channel.receive(message);
-                    state = SchedulerState.Thinking;
-                    break;
-
-                case SchedulerState.Thinking:
-
-                    switch (message.getPort()) {
-                        // If there is a message from the floor, forward it to the elevator subsystem
-                        case FloorSubsystem.PORT:
-                            state = SchedulerState.Thinking;
-
-                            // Selects the nearest available elevator with the correct direction
-                            ElevatorRequest request = new ElevatorRequest(message.getData());
-
-                            // Route the request
-                            int chosenElevator = selectElevator(statuses, request);
-                            request.setElevator(chosenElevator);
-                            message.setData(request.getBytes()); // Re-encode message
-                            message.setPort(ElevatorSubsystem.PORT);
-                            channel.send(message);
-
-                            System.out.println(
-                                    "Scheduler forwarded request [" + request + "] to elevator "
-                                            + request.getElevator());
-                            // Set state back to idle
-                            state = SchedulerState.Idle;
-                            break;
-
-                        // If there is a message from the elevator subsystem, forward it to the floor
-                        case ElevatorSubsystem.PORT:
-                            state = SchedulerState.Thinking;
-
-                            ElevatorRequest response = new ElevatorRequest(message.getData());
-
-                            // It's a status update, so record elevator information
-                            updateRecords(statuses, response);
-
-                            // Set state back to idle as a default option
-                            state = SchedulerState.Idle;
-
-                            // Check if the elevator is shutting down
-                            if (response.getTimerFault()) {
-                                statuses[response.getElevator()].markShutDown();
-                                System.out.println(
-                                        "Scheduler notified that elevator " + response.getElevator() + " shut down.");
-                                System.out.println("Re-assigning request to new elevator.");
-
-                                // Trick state machine into thinking this is a new request
-                                response.setTimerFault(false);
-                                message.setData(response.getBytes());
-                                message.setPort(FloorSubsystem.PORT);
-                                state = SchedulerState.Thinking; // Override state back to thinking
-                            }
-
-                            // Set the message destination to the Floor Subsystem to notify completion.
-                            if (response.isComplete()) {
-                                message.setPort(FloorSubsystem.PORT);
-                                channel.send(message); // Forward the completion message to the Floor Subsystem.
-                                System.out.println("Scheduler forwarded elevator message to floor.");
-                                // Set state back to idle
-                                state = SchedulerState.Idle;
-                                break;
-                            }
-
-                            // Forward the status update to the GUI
-                            byte[] data = statuses[response.getElevator()].getBytes();
-                            DatagramPacket update = new DatagramPacket(data, data.length);
-                            update.setPort(GUISubsystem.PORT);
-                            update.setAddress(message.getAddress());
-                            channel.send(update);
-
-                            break;
-                    }
+        // Run until every stage stops
+        SchedulerPipeline pipeline = new SchedulerPipeline(transport, statuses, DECODE_WORKERS);
+        for (Thread stage : pipeline.start()) {
+            try {
+                stage.join();
+            } catch (InterruptedException e) {
+                return;
             }
         }
     }
@@ -166,6 +93,25 @@ public class Scheduler {
         statuses[i].setComplete(response.isFinalComplete());
     }
 
+    /**
+     * Updates the current records of each elevator's status with the latest
+     * elevator response, read straight from the received packet.
+     *
+     * @param statuses The record of elevator statuses.
+     * @param response A view of the latest status update from an elevator.
+     */
+    public static void updateRecords(ElevatorStatus statuses[], ElevatorRequestView response) {
+        int i = response.getElevator();
+        statuses[i].setElevator(i);
+        statuses[i].setFloor(response.getOriginFloor());
+        statuses[i].setDirection(response.getDirection());
+        statuses[i].setRiders(response.getRiders());
+        statuses[i].setDoor(response.getDoor());
+        statuses[i].setDestinationFloor(response.getFinalDestinationFloor());
+        statuses[i].setOriginFloor(response.getInitialOriginFloor());
+        statuses[i].setComplete(response.isFinalComplete());
+    }
+
     /**
      * Selects the most appropriate elevator to handle a request based on the
      * current status of all elevators
@@ -181,9 +127,23 @@ public class Scheduler {
     public static int selectElevator(ElevatorStatus statuses[], ElevatorRequest request) {
 
         // Schedule based on pick-up location only
-        int originFloor = request.getOriginFloor();
+        return selectElevator(statuses, request.getOriginFloor());
+    }
+
+    /**
+     * Selects the most appropriate elevator to pick up passengers from a floor:
+     * the nearest one that is heading towards the floor and has room. This looks
+     * at every elevator, so the scheduler itself uses an ElevatorIndex, which picks
+     * the same elevator.
+     *
+     * @param statuses    The record of elevator statuses.
+     * @param originFloor The floor the request was made from.
+     * @return The ID of the selected elevator to handle the request.
+     */
+    public static int selectElevator(ElevatorStatus statuses[], int originFloor) {
 
         int chosenElevator = 0; // The elevator selected for this request (by default pick the first one)
+        int chosenDistance = Integer.MAX_VALUE;
 
         for (int i = 0; i < statuses.length; i++) {
 
@@ -192,12 +152,15 @@ public class Scheduler {
                 continue;
             }
 
+            int distance = Integer.MAX_VALUE;
             if (statuses[i].getDirection() == Direction.Up && (statuses[i].getFloor() <= originFloor)) {
-                chosenElevator = i;
-                break;
+                distance = originFloor - statuses[i].getFloor();
             } else if (statuses[i].getDirection() == Direction.Down && (statuses[i].getFloor() >= originFloor)) {
+                distance = statuses[i].getFloor() - originFloor;
+            }
+            if (distance < chosenDistance) {
                 chosenElevator = i;
-                break;
+                chosenDistance = distance;
             }
         }
 
@@ -216,25 +179,3 @@ public class Scheduler {
         return chosenElevator;
     }
 }
-
-/**
- * Enumerates the possible states of the Scheduler. The scheduler's state
- * determines how it reacts to incoming
- * messages and its overall behavior at any given time.
- * <ul>
- * <li>Idle - The scheduler is waiting for new messages.</li>
- * <li>Thinking - The scheduler is processing an incoming message and
- * determining the appropriate action.</li>
- * </ul>
- *
- * @author Matteo Golin, 101220709
- * @author Grant Achuzia, 101222695
- * @author Saja Fawagreh, 101217326
- * @author Javeria Sohail, 101197163
- * @author Yousef Hammad, 101217858
- * @version 0.0.0
- */
-enum SchedulerState {
-    Thinking,
-    Idle,
-}
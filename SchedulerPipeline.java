@@ -0,0 +1,444 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Runs the scheduler as a pipeline of stages, each on its own thread and
+ * connected to the next by a bounded queue:
+ * <ul>
+ * <li>Receiver - Takes every message off the transport as soon as it arrives,
+ * so bursts are absorbed by the queues instead of overflowing the socket's
+ * buffer.</li>
+ * <li>Decoders - Check the format of received messages and split batches from
+ * the floor into single requests. Messages from the floor all go to the same
+ * decoder, and so do messages from each elevator, so requests and updates stay
+ * in order.</li>
+ * <li>Dispatcher - The only stage that reads or writes the elevator status
+ * records. Assigns requests to elevators and records elevator updates.</li>
+ * <li>Publisher - Sends the dispatcher's messages to the elevator subsystem, the
+ * floor and the GUI.</li>
+ * </ul>
+ * A full queue makes the stage before it wait, so a slow stage holds back the
+ * ones before it instead of letting memory grow.
+ *
+ * Messages are never decoded into ElevatorRequests. Each stage reads the fields
+ * it needs straight from the received bytes, and requests are forwarded by
+ * changing the elevator ID in place. Once sent or dropped, a message's buffer
+ * goes back to a pool for the receiver to fill again, so passing a message
+ * through the pipeline does not allocate.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class SchedulerPipeline {
+
+    /** The most messages each queue between stages can hold. */
+    static final int QUEUE_CAPACITY = 1024;
+
+    /** The most messages a stage takes from its queue at once. */
+    static final int MAX_BATCH = 64;
+
+    /** The length of the buffer for receiving messages, which fits a whole batch of requests. */
+    private static final int BUFFER_LEN = RequestBatch.MAX_LEN;
+
+    /** The length of the buffer for a single request or GUI frame. */
+    private static final int SMALL_BUFFER_LEN = Math.max(ElevatorRequest.ENCODED_LEN, StatusDelta.MAX_FRAME_LEN);
+
+    /** The log for the scheduler. */
+    private static final Log LOG = Log.get("Scheduler");
+
+    /** The number of received messages that could not be decoded. */
+    private static final Counter DECODE_ERRORS = Metrics.counter("scheduler_decode_errors_total",
+            "Received messages the scheduler dropped because they could not be decoded.");
+
+    /** The transport the scheduler receives and sends through. */
+    private final Transport transport;
+
+    /** The status record of each elevator, owned by the dispatcher. */
+    private final ElevatorStatus[] statuses;
+
+    /** The elevators sorted by direction and floor, owned by the dispatcher. */
+    private final ElevatorIndex index;
+
+    /** Encodes status updates for the GUI, owned by the dispatcher. */
+    private final StatusDelta guiEncoder;
+
+    /** Reads the message being dispatched, owned by the dispatcher. */
+    private final ElevatorRequestView request;
+
+    /** The received messages waiting for each decoder. */
+    private final ArrayList<MessageQueue<Datagram>> decodeQueues;
+
+    /** The checked messages waiting for the dispatcher, each holding one request or update. */
+    private final MessageQueue<Datagram> decoded;
+
+    /** The messages waiting to be sent by the publisher. */
+    private final MessageQueue<Datagram> outgoing;
+
+    /** The free messages of BUFFER_LEN bytes. */
+    private final MessageQueue<Datagram> freeBuffers;
+
+    /** The free messages of SMALL_BUFFER_LEN bytes. */
+    private final MessageQueue<Datagram> freeSmallBuffers;
+
+    /** Whether requests are sent straight to each elevator instead of through the elevator subsystem. */
+    private final boolean direct;
+
+    /** The current state of the dispatcher (starts in Idle). */
+    private SchedulerState state;
+
+    /**
+     * Creates a pipeline that has not started yet, routing requests as chosen with
+     * the `elevator.routing` property.
+     *
+     * @param transport The transport bound to the scheduler's ports.
+     * @param statuses  The status record of each elevator. Once started, only the
+     *                  dispatcher may touch them.
+     * @param decoders  The number of decoder threads.
+     */
+    public SchedulerPipeline(Transport transport, ElevatorStatus[] statuses, int decoders) {
+        this(transport, statuses, decoders, ElevatorSubsystem.isDirectRouting());
+    }
+
+    /**
+     * Creates a pipeline that has not started yet.
+     *
+     * @param transport The transport bound to the scheduler's ports.
+     * @param statuses  The status record of each elevator. Once started, only the
+     *                  dispatcher may touch them.
+     * @param decoders  The number of decoder threads.
+     * @param direct    True to send requests straight to each elevator's port,
+     *                  false to send them through the elevator subsystem.
+     */
+    SchedulerPipeline(Transport transport, ElevatorStatus[] statuses, int decoders, boolean direct) {
+        this.transport = transport;
+        this.direct = direct;
+        this.statuses = statuses;
+        this.index = new ElevatorIndex(statuses);
+        this.guiEncoder = new StatusDelta(statuses.length);
+        this.request = new ElevatorRequestView();
+        this.decodeQueues = new ArrayList<>(decoders);
+        for (int i = 0; i < decoders; i++) {
+            this.decodeQueues.add(new MessageQueue<>(QUEUE_CAPACITY));
+        }
+        this.decoded = new MessageQueue<>(QUEUE_CAPACITY);
+        this.outgoing = new MessageQueue<>(QUEUE_CAPACITY);
+        this.freeBuffers = new MessageQueue<>(QUEUE_CAPACITY);
+        this.freeSmallBuffers = new MessageQueue<>(QUEUE_CAPACITY);
+        this.state = SchedulerState.Idle;
+        this.registerQueueDepths();
+    }
+
+    /**
+     * Registers the number of messages waiting in each queue between stages as a
+     * gauge, so a stage that falls behind shows up as its queue filling.
+     */
+    private void registerQueueDepths() {
+        String help = "Messages waiting in a queue between the scheduler's stages.";
+        for (int i = 0; i < this.decodeQueues.size(); i++) {
+            MessageQueue<Datagram> queue = this.decodeQueues.get(i);
+            Metrics.gauge("scheduler_queue_depth", help, queue::size, "queue", "decoder " + i);
+        }
+        Metrics.gauge("scheduler_queue_depth", help, this.decoded::size, "queue", "dispatcher");
+        Metrics.gauge("scheduler_queue_depth", help, this.outgoing::size, "queue", "publisher");
+    }
+
+    /**
+     * Starts a thread for every stage. The threads do not keep the program alive
+     * on their own.
+     *
+     * @return The started threads.
+     */
+    public Thread[] start() {
+        ArrayList<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(this::receive, "Scheduler receiver"));
+        for (int i = 0; i < this.decodeQueues.size(); i++) {
+            MessageQueue<Datagram> queue = this.decodeQueues.get(i);
+            threads.add(new Thread(() -> this.decode(queue), "Scheduler decoder " + i));
+        }
+        threads.add(new Thread(this::dispatch, "Scheduler dispatcher"));
+        threads.add(new Thread(this::publish, "Scheduler publisher"));
+
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return threads.toArray(new Thread[0]);
+    }
+
+    /**
+     * Gets a free message to fill in, creating one only if none are free.
+     *
+     * @param length The length of the message it must hold.
+     * @return The message, with a cleared buffer.
+     */
+    private Datagram acquire(int length) {
+        Datagram message = null;
+        if (length <= SMALL_BUFFER_LEN) {
+            message = this.freeSmallBuffers.getMessage(0);
+        }
+        if (message == null) {
+            message = this.freeBuffers.getMessage(0);
+        }
+        if (message == null) {
+            message = new Datagram(length <= SMALL_BUFFER_LEN ? SMALL_BUFFER_LEN : BUFFER_LEN);
+        }
+        return message;
+    }
+
+    /**
+     * Gives back a message that has been sent or dropped, so its buffer can be
+     * filled again. The message must not be used afterwards.
+     *
+     * @param message The message.
+     */
+    private void release(Datagram message) {
+        message.buffer.clear();
+        if (message.data.length >= BUFFER_LEN) {
+            this.freeBuffers.tryPutMessage(message);
+        } else {
+            this.freeSmallBuffers.tryPutMessage(message);
+        }
+    }
+
+    /**
+     * Receiver stage: receives each message into a free buffer and hands it to a
+     * decoder.
+     */
+    private void receive() {
+        try {
+            while (true) {
+                Datagram message = this.acquire(BUFFER_LEN);
+                message.port = this.transport.receive(message.buffer, 0);
+                this.decodeQueues.get(this.decoderFor(message)).putMessage(message);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Chooses the decoder for a received message. Every message from the floor
+     * goes to the first decoder, so requests reach the dispatcher in the order
+     * they were made, and every message from the same elevator goes to the same
+     * decoder.
+     *
+     * @param message The received message.
+     * @return The index of the decoder.
+     */
+    private int decoderFor(Datagram message) {
+        if (message.port == Scheduler.ELEVATOR_PORT && message.buffer.limit() >= ElevatorRequest.ENCODED_LEN) {
+            int elevator = message.buffer.getShort(ElevatorRequest.ELEVATOR_OFFSET);
+            return Math.floorMod(elevator, this.decodeQueues.size());
+        }
+        return 0;
+    }
+
+    /**
+     * Decoder stage: checks messages and hands them to the dispatcher, dropping
+     * any in a format the scheduler cannot read.
+     *
+     * @param queue The queue of messages for this decoder.
+     */
+    private void decode(MessageQueue<Datagram> queue) {
+        ArrayList<Datagram> batch = new ArrayList<>(MAX_BATCH);
+        ElevatorRequestView view = new ElevatorRequestView();
+        while (true) {
+            batch.add(queue.getMessage());
+            queue.drainTo(batch, MAX_BATCH - 1);
+            for (Datagram message : batch) {
+                this.decode(message, view);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Checks one received message, which from the floor may be a batch of
+     * requests. Each request in a batch is copied into a message of its own.
+     *
+     * @param message The received message.
+     * @param view    The view to read requests with.
+     */
+    private void decode(Datagram message, ElevatorRequestView view) {
+        ByteBuffer buffer = message.buffer;
+        int end = buffer.limit();
+        if (end < ElevatorRequest.ENCODED_LEN) {
+            this.drop(message);
+            return;
+        }
+        if (message.port != Scheduler.PORT || !RequestBatch.isBatch(buffer, 0)) {
+            if (view.wrap(buffer, 0).isSupported()) {
+                this.decoded.putMessage(message);
+            } else {
+                this.drop(message);
+            }
+            return;
+        }
+
+        int offset = RequestBatch.HEADER_LEN;
+        for (int i = RequestBatch.count(buffer, 0); i > 0 && offset + 2 <= end; i--) {
+            int length = buffer.getShort(offset);
+            offset += 2;
+            if (length <= 0 || offset + length > end) {
+                DECODE_ERRORS.increment();
+                LOG.warn("Scheduler dropped truncated batch.");
+                break;
+            }
+            if (length < ElevatorRequest.ENCODED_LEN || !view.wrap(buffer, offset).isSupported()) {
+                DECODE_ERRORS.increment();
+                LOG.warn("Scheduler dropped message in an unsupported format.");
+            } else {
+                Datagram item = this.acquire(length);
+                System.arraycopy(message.data, offset, item.data, 0, length);
+                item.buffer.limit(length);
+                item.port = message.port;
+                this.decoded.putMessage(item);
+            }
+            offset += length;
+        }
+        this.release(message);
+    }
+
+    /**
+     * Drops a message the scheduler cannot read.
+     *
+     * @param message The message.
+     */
+    private void drop(Datagram message) {
+        DECODE_ERRORS.increment();
+        LOG.warn("Scheduler dropped message in an unsupported format.");
+        this.release(message);
+    }
+
+    /**
+     * Dispatcher stage: processes decoded messages a batch at a time, according
+     * to its current state.
+     */
+    private void dispatch() {
+        ArrayList<Datagram> batch = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            switch (this.state) {
+
+                case SchedulerState.Idle:
+                    batch.add(this.decoded.getMessage());
+                    this.decoded.drainTo(batch, MAX_BATCH - 1);
+                    this.state = SchedulerState.Thinking;
+                    break;
+
+                case SchedulerState.Thinking:
+                    for (Datagram message : batch) {
+                        this.handle(message);
+                    }
+                    batch.clear();
+                    this.state = SchedulerState.Idle;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Handles one checked message. The message is either passed on to the
+     * publisher or given back, so it must not be used afterwards.
+     *
+     * @param message The request from the floor or update from the elevator
+     *                subsystem.
+     */
+    void handle(Datagram message) {
+        ElevatorRequestView request = this.request.wrap(message.buffer, 0);
+
+        // Requests from the floor, forwarded to the elevator subsystem
+        if (message.port == Scheduler.PORT) {
+            this.assign(message);
+            return;
+        }
+
+        // It's a status update, so record elevator information
+        int elevator = request.getElevator();
+        Scheduler.updateRecords(this.statuses, request);
+        this.index.update(elevator);
+
+        // Check if the elevator is shutting down
+        if (request.getTimerFault()) {
+            this.statuses[elevator].markShutDown();
+            this.index.update(elevator);
+            LOG.warn("Scheduler notified that elevator " + elevator + " shut down.");
+            LOG.warn("Re-assigning request to new elevator.");
+
+            // Route the request again as though it were new
+            Scheduler.REASSIGNMENTS.increment();
+            request.setTimerFault(false);
+            this.assign(message);
+        }
+
+        // Forward completion messages to the Floor Subsystem.
+        else if (request.isComplete()) {
+            LOG.info("Scheduler forwarded elevator message to floor.");
+            message.port = FloorSubsystem.PORT;
+            this.outgoing.putMessage(message);
+            return;
+        } else {
+            this.release(message);
+        }
+
+        // Forward the status update to the GUI if anything changed
+        Datagram frame = this.acquire(StatusDelta.MAX_FRAME_LEN);
+        int frameLength = this.guiEncoder.encode(this.statuses[elevator], frame.buffer);
+        if (frameLength > 0) {
+            frame.buffer.limit(frameLength);
+            frame.port = GUISubsystem.PORT;
+            this.outgoing.putMessage(frame);
+        } else {
+            this.release(frame);
+        }
+    }
+
+    /**
+     * Selects the nearest available elevator with the correct direction for a
+     * request and queues the request to be forwarded to it, either through the
+     * elevator subsystem or straight to the elevator. Only the elevator ID of the
+     * received request is changed before it is sent on.
+     *
+     * @param message The request to be assigned, which the dispatcher's view is
+     *                reading.
+     */
+    private void assign(Datagram message) {
+        long start = System.nanoTime();
+        int chosenElevator = this.index.select(this.request.getOriginFloor());
+        Scheduler.SELECT_LATENCY.record(System.nanoTime() - start);
+        this.request.setElevator(chosenElevator);
+        if (LOG.isEnabled(LogLevel.Info)) {
+            LOG.info("Scheduler forwarded request [" + this.request + "] to elevator " + chosenElevator);
+        }
+
+        // The publisher may reuse the message as soon as it is queued
+        message.port = this.direct ? ElevatorSubsystem.ELEVATOR_PORT_START + chosenElevator : ElevatorSubsystem.PORT;
+        this.outgoing.putMessage(message);
+    }
+
+    /**
+     * Publisher stage: sends the dispatcher's messages.
+     */
+    private void publish() {
+        ArrayList<Datagram> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                batch.add(this.outgoing.getMessage());
+                this.outgoing.drainTo(batch, MAX_BATCH - 1);
+                for (Datagram message : batch) {
+                    this.transport.send(message.buffer, message.port);
+                    this.release(message);
+                }
+                batch.clear();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the functionality of the SchedulerPipeline class. The pipeline
+ * runs on its own network, with the other subsystems played by the test.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class SchedulerPipelineTest {
+
+    /** The longest time to wait for the pipeline to send something, in milliseconds. */
+    private static final long TIMEOUT = 2000;
+
+    /** Stands in for the floor subsystem. */
+    private Transport floor;
+
+    /** Stands in for the elevator subsystem. */
+    private Transport subsystem;
+
+    /** Stands in for the GUI. */
+    private Transport gui;
+
+    /** The buffer for receiving what the pipeline sends. */
+    private ByteBuffer received;
+
+    /**
+     * Starts a pipeline for three elevators on the ground floor.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport scheduler = network.bind(Scheduler.ELEVATOR_PORT, Scheduler.PORT);
+        this.floor = network.bind(FloorSubsystem.PORT);
+        this.subsystem = network.bind(ElevatorSubsystem.PORT);
+        this.gui = network.bind(GUISubsystem.PORT);
+        this.received = ByteBuffer.allocate(RequestBatch.MAX_LEN);
+
+        new SchedulerPipeline(scheduler, newStatuses(3), 2, false).start();
+    }
+
+    /**
+     * Creates status records for a number of elevators on the ground floor.
+     *
+     * @param count The number of elevators.
+     * @return The status records.
+     */
+    private static ElevatorStatus[] newStatuses(int count) {
+        ElevatorStatus[] statuses = new ElevatorStatus[count];
+        for (int i = 0; i < count; i++) {
+            statuses[i] = new ElevatorStatus();
+        }
+        return statuses;
+    }
+
+    /**
+     * Receives the next request the pipeline sends to a subsystem.
+     *
+     * @param transport The subsystem's transport.
+     * @return The received request.
+     */
+    private ElevatorRequest receiveRequest(Transport transport) throws IOException {
+        assertNotEquals(-1, transport.receive(this.received, TIMEOUT));
+        return new ElevatorRequest(Arrays.copyOf(this.received.array(), this.received.limit()));
+    }
+
+    /**
+     * Checks that every request in a batch from the floor is forwarded to the
+     * elevator subsystem, in order.
+     */
+    @Test
+    void testDispatchBatch() throws IOException {
+        RequestBatch batch = new RequestBatch();
+        batch.add(new ElevatorRequest("14:05:15.0 3 Up 7"));
+        batch.add(new ElevatorRequest("14:05:16.0 5 Down 2"));
+        this.floor.send(ByteBuffer.wrap(batch.array(), 0, batch.length()), Scheduler.PORT);
+
+        ElevatorRequest first = this.receiveRequest(this.subsystem);
+        ElevatorRequest second = this.receiveRequest(this.subsystem);
+        assertEquals(3, first.getOriginFloor());
+        assertEquals(5, second.getOriginFloor());
+        assertEquals(0, first.getElevator());
+        assertEquals(0, second.getElevator());
+    }
+
+    /**
+     * Checks that requests from the floor are forwarded in the order they were
+     * made, even though there is more than one decoder.
+     */
+    @Test
+    void testFloorOrder() throws IOException {
+        for (int floor = 1; floor <= 40; floor++) {
+            ElevatorRequest request = new ElevatorRequest("14:05:15.0 " + floor + " Up 50");
+            this.floor.send(ByteBuffer.wrap(request.getBytes()), Scheduler.PORT);
+        }
+        for (int floor = 1; floor <= 40; floor++) {
+            assertEquals(floor, this.receiveRequest(this.subsystem).getOriginFloor());
+        }
+    }
+
+    /**
+     * Checks that status updates are recorded and shown on the GUI, and that the
+     * recorded positions are used to choose elevators.
+     */
+    @Test
+    void testStatusUpdate() throws IOException {
+        ElevatorRequest update = new ElevatorRequest(1, 4, 8, 1, 0, 8, 2, false);
+        this.subsystem.send(ByteBuffer.wrap(update.getBytes()), Scheduler.ELEVATOR_PORT);
+
+        assertNotEquals(-1, this.gui.receive(this.received, TIMEOUT));
+        assertEquals(1, StatusDelta.elevatorOf(this.received, 0));
+
+        // Elevator 1 is now closest to floor 6 on its way up
+        this.floor.send(ByteBuffer.wrap(new ElevatorRequest("14:05:15.0 6 Up 9").getBytes()), Scheduler.PORT);
+        assertEquals(1, this.receiveRequest(this.subsystem).getElevator());
+    }
+
+    /**
+     * Checks that completed requests are forwarded to the floor.
+     */
+    @Test
+    void testCompletion() throws IOException {
+        ElevatorRequest done = new ElevatorRequest(2, 7, 7, 0, 1, 7, 3, true);
+        done.markComplete();
+        this.subsystem.send(ByteBuffer.wrap(done.getBytes()), Scheduler.ELEVATOR_PORT);
+
+        assertEquals(done, this.receiveRequest(this.floor));
+    }
+
+    /**
+     * Checks that a request from an elevator that shut down is given to another
+     * elevator.
+     */
+    @Test
+    void testTimerFaultReassigns() throws IOException {
+        ElevatorRequest fault = new ElevatorRequest(0, 1, 5, 1, 0, 5, 1, false);
+        fault.setTimerFault(true);
+        this.subsystem.send(ByteBuffer.wrap(fault.getBytes()), Scheduler.ELEVATOR_PORT);
+
+        ElevatorRequest reassigned = this.receiveRequest(this.subsystem);
+        assertEquals(1, reassigned.getElevator());
+        assertFalse(reassigned.getTimerFault());
+    }
+
+    /**
+     * Checks that with direct routing, requests are sent straight to the chosen
+     * elevator's port.
+     */
+    @Test
+    void testDirectRouting() throws IOException {
+        MemoryNetwork network = new MemoryNetwork();
+        Transport scheduler = network.bind(Scheduler.ELEVATOR_PORT, Scheduler.PORT);
+        Transport floor = network.bind(FloorSubsystem.PORT);
+        Transport elevator = network.bind(ElevatorSubsystem.ELEVATOR_PORT_START);
+        new SchedulerPipeline(scheduler, newStatuses(3), 2, true).start();
+
+        floor.send(ByteBuffer.wrap(new ElevatorRequest("14:05:15.0 3 Up 7").getBytes()), Scheduler.PORT);
+        ElevatorRequest request = this.receiveRequest(elevator);
+        assertEquals(0, request.getElevator());
+        assertEquals(3, request.getOriginFloor());
+    }
+}
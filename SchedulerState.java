@@ -0,0 +1,21 @@
+/**
+ * Enumerates the possible states of the Scheduler. The scheduler's state
+ * determines how it reacts to incoming
+ * messages and its overall behavior at any given time.
+ * <ul>
+ * <li>Idle - The scheduler is waiting for new messages.</li>
+ * <li>Thinking - The scheduler is processing an incoming message and
+ * determining the appropriate action.</li>
+ * </ul>
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public enum SchedulerState {
+    Thinking,
+    Idle,
+}
@@ -73,5 +73,22 @@ class SchedulerTest {
         assertEquals(1, selectedElevator);
     }
 
+    /**
+     * Tests that selectElevator picks the closest of the elevators heading towards
+     * the request, not just the first one.
+     */
+    @Test
+    public void testSelectNearestElevator() {
+        ElevatorStatus[] statuses = new ElevatorStatus[3];
+        int[] floors = { 1, 4, 8 };
+        for (int i = 0; i < statuses.length; i++) {
+            statuses[i] = new ElevatorStatus();
+            statuses[i].setElevator(i);
+            statuses[i].setFloor(floors[i]);
+            statuses[i].setDirection(Direction.Up);
+        }
 
-}
\ No newline at end of file
+        // Elevators 0 and 1 are both below floor 5 going up, and elevator 1 is closer
+        assertEquals(1, Scheduler.selectElevator(statuses, 5));
+    }
+}
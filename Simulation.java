@@ -0,0 +1,494 @@
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.PriorityQueue;
+import java.util.Scanner;
+
+/**
+ * Runs the whole elevator system inside one process as a discrete-event
+ * simulation. There are no sockets and no threads: a queue of timestamped events
+ * drives floor arrivals, scheduling decisions and elevator state transitions,
+ * and simulated time jumps straight from one event to the next.
+ *
+ * The elevators, scheduling decisions and status records are the same ones used
+ * by the networked subsystems, so results carry over to the real system.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class Simulation {
+
+    /** System property used to enable or disable random elevator faults. */
+    public static final String FAULTS_PROPERTY = "simulation.faults";
+
+    /** The events waiting to happen, ordered by time. */
+    private final PriorityQueue<SimulationEvent> events;
+
+    /** The clock the elevators pace themselves with. */
+    private final EventClock clock;
+
+    /** The simulated elevators. */
+    private final Elevator[] elevators;
+
+    /** The scheduler's record of each elevator's status. */
+    private final ElevatorStatus[] statuses;
+
+    /** The elevators sorted by direction and floor, kept in step with their status records. */
+    private final ElevatorIndex index;
+
+    /** Whether each elevator already has its next step queued. */
+    private final boolean[] stepping;
+
+    /**
+     * The requests assigned to each elevator that it has not picked up yet. Like
+     * a socket buffer, an elevator only takes requests from here while idle.
+     */
+    private final ArrayList<ArrayDeque<ElevatorRequest>> inboxes;
+
+    /**
+     * When the passengers of each request not yet completed called the elevator,
+     * so their waiting time still counts from then if they are re-assigned.
+     */
+    private final IdentityHashMap<ElevatorRequest, Long> hallCalls;
+
+    /** The requests still to be read from the trace, or null if there is none. */
+    private TraceInjector trace;
+
+    /** Counts the events created, so that events at the same time keep their order. */
+    private long sequence;
+
+    /** The number of requests that arrived at a floor. */
+    private long arrived;
+
+    /** The number of requests that were delivered to their destination floor. */
+    private long completed;
+
+    /** The number of requests that were assigned to a shut-down elevator. */
+    private long lost;
+
+    /**
+     * Creates a new simulation with all elevators idle on the ground floor.
+     *
+     * @param numElevators The number of elevators in the building.
+     * @param faults       True if elevators can have random faults, false
+     *                     otherwise.
+     */
+    public Simulation(int numElevators, boolean faults) {
+        this.events = new PriorityQueue<>();
+        this.clock = new EventClock();
+        this.elevators = new Elevator[numElevators];
+        this.statuses = new ElevatorStatus[numElevators];
+        this.stepping = new boolean[numElevators];
+        this.inboxes = new ArrayList<>(numElevators);
+        this.hallCalls = new IdentityHashMap<>();
+
+        for (int i = 0; i < numElevators; i++) {
+            this.elevators[i] = new Elevator(i, this.clock, this::post);
+            this.elevators[i].setFaultsEnabled(faults);
+            this.statuses[i] = new ElevatorStatus();
+            this.inboxes.add(new ArrayDeque<>());
+        }
+        this.index = new ElevatorIndex(this.statuses);
+    }
+
+    /** Runs a simulation of the requests in the input file. */
+    public static void main(String[] args) throws FileNotFoundException {
+        String file = args.length > 0 ? args[0] : FloorSubsystem.DATA_FILE;
+        boolean faults = Boolean.parseBoolean(System.getProperty(FAULTS_PROPERTY, "true"));
+
+        Simulation simulation = new Simulation(ElevatorSubsystem.NUM_ELEVATORS, faults);
+        simulation.replay(new TraceInjector(new Scanner(new File(file))));
+        simulation.registerMetrics();
+        Metrics.serveFromProperty();
+
+        long start = System.nanoTime();
+        long finish = simulation.run();
+        long wallTime = (System.nanoTime() - start) / 1_000_000;
+        Log.flush(); // So the summary comes after every elevator's messages
+
+        System.out.println("Simulated " + simulation.getArrived() + " requests in " + finish / 1000
+                + " simulated seconds (" + wallTime + " ms of wall time).");
+        System.out.println("Completed: " + simulation.getCompleted() + ", lost to shut-down elevators: "
+                + simulation.getLost());
+        System.out.println(ElevatorSubsystem.latencyReport(simulation.elevators));
+    }
+
+    /**
+     * Registers the simulation's progress and its elevators with the metrics, so
+     * a long simulation can be watched while it runs.
+     */
+    private void registerMetrics() {
+        ElevatorSubsystem.registerMetrics(this.elevators);
+        Metrics.gauge("simulation_requests_arrived", "Requests that have arrived at a floor.", this::getArrived);
+        Metrics.gauge("simulation_requests_completed", "Requests delivered to their destination floor.",
+                this::getCompleted);
+        Metrics.gauge("simulation_time_seconds", "Simulated time that has passed.", () -> this.clock.millis() / 1000.0);
+    }
+
+    /**
+     * Queues up the requests from a trace, each arriving at the time given by its
+     * timestamp. Requests are read one at a time as the simulation reaches them,
+     * so traces of any length can be replayed.
+     *
+     * @param trace The trace to replay.
+     */
+    public void replay(TraceInjector trace) {
+        this.trace = trace;
+        this.nextArrival();
+    }
+
+    /**
+     * Schedules a request to arrive at its origin floor.
+     *
+     * @param request The request that will arrive.
+     * @param time    The simulated time of arrival in milliseconds.
+     */
+    public void inject(ElevatorRequest request, long time) {
+        this.schedule(new SimulationEvent(time, this.sequence++, SimulationEventType.Arrival, -1, request));
+    }
+
+    /**
+     * Processes events until there are none left.
+     *
+     * @return The simulated time of the last event in milliseconds.
+     */
+    public long run() {
+        while (!this.events.isEmpty()) {
+            SimulationEvent event = this.events.poll();
+            this.clock.advanceTo(event.time);
+
+            switch (event.type) {
+                case SimulationEventType.Arrival:
+                    this.arrived++;
+                    this.hallCalls.put(event.request, event.time);
+                    this.dispatch(event.request);
+                    if (this.trace != null) {
+                        this.nextArrival();
+                    }
+                    break;
+                case SimulationEventType.Step:
+                    this.step(event.elevator);
+                    break;
+                case SimulationEventType.Message:
+                    this.receive(event.request);
+                    break;
+            }
+        }
+        return this.clock.millis();
+    }
+
+    /**
+     * Reads the next request from the trace and schedules its arrival.
+     */
+    private void nextArrival() {
+        ElevatorRequest request = this.trace.next();
+        if (request == null) {
+            this.trace = null; // No more requests
+            return;
+        }
+        this.inject(request, this.trace.getOffset());
+    }
+
+    /**
+     * Assigns a request to an elevator, the same way the scheduler does.
+     *
+     * @param request The request to be assigned.
+     */
+    private void dispatch(ElevatorRequest request) {
+        long start = System.nanoTime();
+        int chosenElevator = this.index.select(request.getOriginFloor());
+        Scheduler.SELECT_LATENCY.record(System.nanoTime() - start);
+        request.setElevator(chosenElevator);
+
+        if (this.elevators[chosenElevator].getState() == ElevatorState.Halted) {
+            this.drop(request); // Nobody will ever answer this request
+            return;
+        }
+        this.inboxes.get(chosenElevator).add(request);
+        this.wake(chosenElevator);
+    }
+
+    /**
+     * Handles a message sent by an elevator, the same way the scheduler does.
+     *
+     * @param response The message sent by the elevator.
+     */
+    private void receive(ElevatorRequest response) {
+        Scheduler.updateRecords(this.statuses, response);
+        this.index.update(response.getElevator());
+
+        // Re-assign requests from an elevator that shut down
+        if (response.getTimerFault()) {
+            this.statuses[response.getElevator()].markShutDown();
+            this.index.update(response.getElevator());
+            Scheduler.REASSIGNMENTS.increment();
+            response.setTimerFault(false);
+            this.dispatch(response);
+            return;
+        }
+
+        if (response.isComplete()) {
+            this.completed++;
+            this.hallCalls.remove(response);
+        }
+    }
+
+    /**
+     * Performs the next state transition of an elevator and schedules the one
+     * after it for when the transition has finished.
+     *
+     * @param id The ID of the elevator.
+     */
+    private void step(int id) {
+        this.stepping[id] = false;
+        Elevator elevator = this.elevators[id];
+        ArrayDeque<ElevatorRequest> inbox = this.inboxes.get(id);
+        if (elevator.getState() == ElevatorState.Idle) {
+            while (!inbox.isEmpty()) {
+                ElevatorRequest request = inbox.poll();
+                elevator.accept(request, this.hallCalls.getOrDefault(request, this.clock.millis()));
+            }
+        }
+        if (!elevator.wake()) {
+            return; // Nothing to do until a request is assigned
+        }
+
+        // The elevator's sleeps tell us how long the transition takes
+        elevator.step();
+        long duration = this.clock.takeElapsed();
+        if (elevator.getState() != ElevatorState.Halted) {
+            this.stepping[id] = true;
+            this.schedule(new SimulationEvent(this.clock.millis() + duration, this.sequence++,
+                    SimulationEventType.Step, id, null));
+            return;
+        }
+
+        // The requests still waiting for this elevator will never be picked up
+        while (!inbox.isEmpty()) {
+            this.drop(inbox.poll());
+        }
+    }
+
+    /**
+     * Gives up on a request that nobody will answer, and forgets when its
+     * passengers called the elevator.
+     *
+     * @param request The request to give up on.
+     */
+    private void drop(ElevatorRequest request) {
+        this.lost++;
+        this.hallCalls.remove(request);
+    }
+
+    /**
+     * Makes sure an elevator will take its next step if it has not got one
+     * queued already.
+     *
+     * @param id The ID of the elevator.
+     */
+    private void wake(int id) {
+        if (!this.stepping[id]) {
+            this.stepping[id] = true;
+            this.schedule(new SimulationEvent(this.clock.millis(), this.sequence++, SimulationEventType.Step, id, null));
+        }
+    }
+
+    /**
+     * Queues a message sent by an elevator to be received by the scheduler.
+     *
+     * @param message The message sent by the elevator.
+     */
+    private void post(ElevatorRequest message) {
+        this.schedule(new SimulationEvent(this.clock.millis(), this.sequence++, SimulationEventType.Message, -1,
+                message));
+    }
+
+    /**
+     * Adds an event to the queue.
+     *
+     * @param event The event to be added.
+     */
+    private void schedule(SimulationEvent event) {
+        this.events.add(event);
+    }
+
+    /**
+     * Gets the number of requests that have arrived at a floor.
+     *
+     * @return The number of arrived requests.
+     */
+    public long getArrived() {
+        return this.arrived;
+    }
+
+    /**
+     * Gets the number of requests that were delivered to their destination.
+     *
+     * @return The number of completed requests.
+     */
+    public long getCompleted() {
+        return this.completed;
+    }
+
+    /**
+     * Gets the number of requests that were assigned to a shut-down elevator and
+     * will never be completed.
+     *
+     * @return The number of lost requests.
+     */
+    public long getLost() {
+        return this.lost;
+    }
+
+    /**
+     * Gets the number of requests that have arrived but were neither completed nor
+     * lost yet, i.e. whose hall calls are still being kept.
+     *
+     * @return The number of requests still in the system.
+     */
+    public int getPending() {
+        return this.hallCalls.size();
+    }
+
+    /**
+     * Gets the record of each elevator's status.
+     *
+     * @return The status records, indexed by elevator ID.
+     */
+    public ElevatorStatus[] getStatuses() {
+        return this.statuses;
+    }
+}
+
+/**
+ * Enumerates the kinds of events in the simulation.
+ * <ul>
+ * <li>Arrival - A request arrives at its origin floor.</li>
+ * <li>Step - An elevator performs its next state transition.</li>
+ * <li>Message - The scheduler receives a message from an elevator.</li>
+ * </ul>
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+enum SimulationEventType {
+    Arrival,
+    Step,
+    Message,
+}
+
+/**
+ * Something that happens at a point in simulated time.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class SimulationEvent implements Comparable<SimulationEvent> {
+
+    /** The simulated time of the event in milliseconds. */
+    final long time;
+
+    /** Orders events that happen at the same time by when they were created. */
+    final long sequence;
+
+    /** What kind of event this is. */
+    final SimulationEventType type;
+
+    /** The elevator taking a step, or -1. */
+    final int elevator;
+
+    /** The request arriving or the message being received, or null. */
+    final ElevatorRequest request;
+
+    /**
+     * Creates a new event.
+     *
+     * @param time     The simulated time of the event in milliseconds.
+     * @param sequence The creation order of the event.
+     * @param type     What kind of event this is.
+     * @param elevator The elevator taking a step, or -1.
+     * @param request  The request arriving or the message being received, or
+     *                 null.
+     */
+    SimulationEvent(long time, long sequence, SimulationEventType type, int elevator, ElevatorRequest request) {
+        this.time = time;
+        this.sequence = sequence;
+        this.type = type;
+        this.elevator = elevator;
+        this.request = request;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        if (this.time != other.time) {
+            return Long.compare(this.time, other.time);
+        }
+        return Long.compare(this.sequence, other.sequence);
+    }
+}
+
+/**
+ * The clock of a discrete-event simulation. Time only moves when the simulation
+ * advances it to the next event, and sleeping just adds up how long the current
+ * state transition takes.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class EventClock implements SimulationClock {
+
+    /** The simulated time of the current event in milliseconds. */
+    private long now;
+
+    /** The time slept since the current event started in milliseconds. */
+    private long elapsed;
+
+    @Override
+    public long millis() {
+        return this.now + this.elapsed;
+    }
+
+    @Override
+    public void sleep(long millis) {
+        this.elapsed += Math.max(millis, 0);
+    }
+
+    /**
+     * Moves the clock to the time of the next event.
+     *
+     * @param time The simulated time of the next event in milliseconds.
+     */
+    void advanceTo(long time) {
+        this.now = time;
+        this.elapsed = 0;
+    }
+
+    /**
+     * Gets and resets the time slept since the current event started.
+     *
+     * @return The time slept in milliseconds.
+     */
+    long takeElapsed() {
+        long slept = this.elapsed;
+        this.elapsed = 0;
+        return slept;
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * A source of time for the elevator simulation. Every subsystem paces itself
+ * through a clock instead of calling Thread.sleep directly, so the same code
+ * paths can be run in real time, sped up, or as fast as possible.
+ *
+ * The clock used by a process is selected with the `simulation.clock` system
+ * property:
+ * <ul>
+ * <li>real - Time passes at the normal rate (default).</li>
+ * <li>fast - Sleeps return immediately and only advance simulated time.</li>
+ * <li>A number, e.g. 10 - Time passes that many times faster than normal.</li>
+ * </ul>
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public interface SimulationClock {
+
+    /** The system property used to select the clock of this process. */
+    String PROPERTY = "simulation.clock";
+
+    /** The clock selected for this process by the `simulation.clock` property. */
+    SimulationClock SYSTEM = fromProperty(System.getProperty(PROPERTY, "real"));
+
+    /**
+     * Gets the simulated time that has passed since the clock was created.
+     *
+     * @return The elapsed simulated time in milliseconds.
+     */
+    long millis();
+
+    /**
+     * Lets the given amount of simulated time pass for the calling thread.
+     *
+     * @param millis The amount of simulated time to wait for in milliseconds.
+     * @throws InterruptedException If the calling thread is interrupted while
+     *                              waiting.
+     */
+    void sleep(long millis) throws InterruptedException;
+
+    /**
+     * Creates a clock that runs at the same rate as the wall clock.
+     *
+     * @return A real-time clock.
+     */
+    static SimulationClock realTime() {
+        return new ScaledClock(1.0);
+    }
+
+    /**
+     * Creates a clock that never blocks, so the simulation runs as fast as
+     * possible.
+     *
+     * @return An as-fast-as-possible clock.
+     */
+    static SimulationClock asFastAsPossible() {
+        return new VirtualClock();
+    }
+
+    /**
+     * Creates a clock from its textual description.
+     *
+     * @param mode One of "real", "fast" or a positive speed-up factor.
+     * @return The described clock.
+     * @throws IllegalArgumentException If the description is not recognized.
+     */
+    static SimulationClock fromProperty(String mode) {
+        switch (mode) {
+            case "real":
+                return realTime();
+            case "fast":
+                return asFastAsPossible();
+            default:
+                try {
+                    return new ScaledClock(Double.parseDouble(mode));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Unknown simulation clock: " + mode);
+                }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the simulation clocks.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class SimulationClockTest {
+
+    /**
+     * Tests that the as-fast-as-possible clock advances simulated time without
+     * blocking.
+     */
+    @Test
+    void testVirtualSleepDoesNotBlock() throws InterruptedException {
+        SimulationClock clock = SimulationClock.asFastAsPossible();
+        long start = System.nanoTime();
+        clock.sleep(60_000);
+        clock.sleep(2_000);
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertEquals(62_000, clock.millis());
+    }
+
+    /**
+     * Tests that threads sleeping on a virtual clock at the same time overlap
+     * instead of adding up, and that each thread reads its own timeline.
+     */
+    @Test
+    void testVirtualSleepsOverlap() throws InterruptedException {
+        SimulationClock clock = SimulationClock.asFastAsPossible();
+        CountDownLatch started = new CountDownLatch(2);
+        long[] times = new long[2];
+        long[] sleeps = { 2_000, 500 };
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < threads.length; i++) {
+            int id = i;
+            threads[i] = new Thread(() -> {
+                try {
+                    clock.millis(); // Both timelines start at 0
+                    started.countDown();
+                    started.await();
+                    clock.sleep(sleeps[id]);
+                    times[id] = clock.millis();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Each thread only sees its own sleep, however the two interleaved
+        assertEquals(2_000, times[0]);
+        assertEquals(500, times[1]);
+
+        // A thread that starts later starts at the latest time reached so far
+        assertEquals(2_000, clock.millis());
+        clock.sleep(500);
+        assertEquals(2_500, clock.millis());
+    }
+
+    /**
+     * Tests that a sped-up clock sleeps for a fraction of the requested time.
+     */
+    @Test
+    void testScaledSleep() throws InterruptedException {
+        SimulationClock clock = new ScaledClock(100);
+        long start = System.nanoTime();
+        clock.sleep(2_000);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(elapsed < 1_000);
+        assertTrue(clock.millis() >= 2_000);
+    }
+
+    /**
+     * Tests that clocks are created from their textual descriptions.
+     */
+    @Test
+    void testFromProperty() {
+        assertEquals(VirtualClock.class, SimulationClock.fromProperty("fast").getClass());
+        assertEquals(1.0, ((ScaledClock) SimulationClock.fromProperty("real")).getSpeedup());
+        assertEquals(10.0, ((ScaledClock) SimulationClock.fromProperty("10")).getSpeedup());
+        assertThrows(IllegalArgumentException.class, () -> SimulationClock.fromProperty("slow"));
+        assertThrows(IllegalArgumentException.class, () -> SimulationClock.fromProperty("0"));
+    }
+}
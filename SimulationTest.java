@@ -0,0 +1,93 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Random;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the discrete-event simulation.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class SimulationTest {
+
+    /**
+     * Tests that every request injected into a fault-free simulation is completed.
+     */
+    @Test
+    void testAllRequestsComplete() {
+        Simulation simulation = new Simulation(2, false);
+        simulation.inject(new ElevatorRequest("14:05:15.0 2 Up 4"), 0);
+        simulation.inject(new ElevatorRequest("14:05:16.0 6 Down 1"), 1000);
+        simulation.inject(new ElevatorRequest("14:05:17.0 3 Up 9"), 1000);
+
+        long finish = simulation.run();
+
+        assertEquals(3, simulation.getArrived());
+        assertEquals(3, simulation.getCompleted());
+        assertEquals(0, simulation.getLost());
+        assertTrue(finish > 0);
+    }
+
+    /**
+     * Tests that simulated time covers the elevator's travel time. Going from the
+     * ground floor to floor 2 and then to floor 4 takes three floors of travel
+     * and two door cycles.
+     */
+    @Test
+    void testSimulatedTravelTime() {
+        Simulation simulation = new Simulation(1, false);
+        simulation.inject(new ElevatorRequest("14:05:15.0 2 Up 4"), 0);
+
+        long finish = simulation.run();
+
+        assertEquals(1, simulation.getCompleted());
+        assertTrue(finish >= 3 * 2000 + 2 * (1000 + 2000));
+    }
+
+    /**
+     * Tests that a whole trace file can be replayed.
+     */
+    @Test
+    void testReplay() throws FileNotFoundException {
+        Simulation simulation = new Simulation(ElevatorSubsystem.NUM_ELEVATORS, false);
+        simulation.replay(new TraceInjector(new Scanner(new File(FloorSubsystem.DATA_FILE)), 1));
+        simulation.run();
+
+        assertEquals(6, simulation.getArrived());
+        assertEquals(6, simulation.getCompleted());
+    }
+
+    /**
+     * Tests that when elevators shut down, every request is still either completed
+     * or counted as lost, and none is kept track of after the simulation ends.
+     */
+    @Test
+    void testFaultsLeaveNothingPending() {
+        Simulation simulation = new Simulation(4, true);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            int origin = 1 + random.nextInt(FloorSubsystem.NUM_FLOORS);
+            int destination = 1 + random.nextInt(FloorSubsystem.NUM_FLOORS - 1);
+            if (destination >= origin) {
+                destination++;
+            }
+            String direction = destination > origin ? "Up" : "Down";
+            simulation.inject(new ElevatorRequest(String.format("14:%02d:%02d.0 %d %s %d", i / 60, i % 60, origin,
+                    direction, destination)), i * 1000L);
+        }
+        simulation.run();
+
+        assertEquals(200, simulation.getArrived());
+        assertEquals(simulation.getArrived(), simulation.getCompleted() + simulation.getLost());
+        assertEquals(0, simulation.getPending());
+    }
+}
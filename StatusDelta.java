@@ -0,0 +1,233 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes elevator status updates for the GUI as deltas. Each frame only carries
+ * the fields that changed since the last frame sent for that elevator, marked by
+ * a bitmask. Every so often a keyframe carrying all fields is sent instead, so a
+ * GUI that started late or missed a packet catches up.
+ *
+ * Frame layout: a kind byte (keyframe or delta), the elevator ID as a 2-byte
+ * integer, the changed-fields mask byte, then one 2-byte integer per field in
+ * the mask, in mask bit order.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class StatusDelta {
+
+    /** Frame kind carrying every field. */
+    public static final byte KEYFRAME = 0;
+
+    /** Frame kind carrying only the changed fields. */
+    public static final byte DELTA = 1;
+
+    /** The number of updates for an elevator from one keyframe to the next. */
+    public static final int KEYFRAME_INTERVAL = 32;
+
+    /** The number of status fields that can be carried in a frame. */
+    private static final int NUM_FIELDS = 8;
+
+    /** The length of the frame header in bytes. */
+    private static final int HEADER_LEN = 4;
+
+    /** The length of the longest possible frame in bytes. */
+    public static final int MAX_FRAME_LEN = HEADER_LEN + 2 * NUM_FIELDS;
+
+    /** Mask with every field set. */
+    private static final int ALL_FIELDS = (1 << NUM_FIELDS) - 1;
+
+    /** The field values last sent for each elevator. */
+    private final int[][] sent;
+
+    /** The number of updates for each elevator since its last keyframe, or -1 if none was ever sent. */
+    private final int[] sinceKeyframe;
+
+    /**
+     * Creates a new encoder that has not sent anything yet.
+     *
+     * @param numElevators The number of elevators that updates will be sent for.
+     */
+    public StatusDelta(int numElevators) {
+        this.sent = new int[numElevators][NUM_FIELDS];
+        this.sinceKeyframe = new int[numElevators];
+        for (int i = 0; i < numElevators; i++) {
+            this.sinceKeyframe[i] = -1;
+        }
+    }
+
+    /**
+     * Encodes the next frame for an elevator's status. The first update for each
+     * elevator, and every KEYFRAME_INTERVAL-th update after that, is sent as a
+     * keyframe even if nothing changed.
+     *
+     * @param status The latest status of the elevator.
+     * @param out    The buffer to write the frame into, from index 0. Must hold at
+     *               least MAX_FRAME_LEN bytes.
+     * @return The length of the frame in bytes, or 0 if nothing changed and no
+     *         frame needs to be sent.
+     */
+    public int encode(ElevatorStatus status, ByteBuffer out) {
+        int id = status.getElevator();
+        int[] last = this.sent[id];
+
+        boolean keyframe = this.sinceKeyframe[id] < 0 || this.sinceKeyframe[id] >= KEYFRAME_INTERVAL - 1;
+        int mask = 0;
+        if (keyframe) {
+            mask = ALL_FIELDS;
+        } else {
+            for (int f = 0; f < NUM_FIELDS; f++) {
+                if (field(status, f) != last[f]) {
+                    mask |= 1 << f;
+                }
+            }
+            if (mask == 0) {
+                this.sinceKeyframe[id]++;
+                return 0; // Nothing changed
+            }
+        }
+
+        out.put(0, keyframe ? KEYFRAME : DELTA);
+        out.putShort(1, (short) id);
+        out.put(3, (byte) mask);
+        int position = HEADER_LEN;
+        for (int f = 0; f < NUM_FIELDS; f++) {
+            if ((mask & (1 << f)) != 0) {
+                last[f] = field(status, f);
+                out.putShort(position, (short) last[f]);
+                position += 2;
+            }
+        }
+
+        this.sinceKeyframe[id] = keyframe ? 0 : this.sinceKeyframe[id] + 1;
+        return position;
+    }
+
+    /**
+     * Reads which elevator a frame is about.
+     *
+     * @param frame  The buffer holding the frame.
+     * @param offset The offset of the frame within the buffer.
+     * @return The elevator ID.
+     */
+    public static int elevatorOf(ByteBuffer frame, int offset) {
+        return frame.getShort(offset + 1);
+    }
+
+    /**
+     * Checks that a received frame is long enough to hold its header and every
+     * field in its mask.
+     *
+     * @param frame  The buffer holding the frame, which ends at the buffer's limit.
+     * @param offset The offset of the frame within the buffer.
+     * @return True if the whole frame is there, false if it was cut short.
+     */
+    public static boolean isComplete(ByteBuffer frame, int offset) {
+        int length = frame.limit() - offset;
+        if (length < HEADER_LEN) {
+            return false;
+        }
+        int mask = frame.get(offset + 3) & ALL_FIELDS;
+        return length >= HEADER_LEN + 2 * Integer.bitCount(mask);
+    }
+
+    /**
+     * Checks if a frame is a keyframe.
+     *
+     * @param frame  The buffer holding the frame.
+     * @param offset The offset of the frame within the buffer.
+     * @return True if the frame carries every field, false otherwise.
+     */
+    public static boolean isKeyframe(ByteBuffer frame, int offset) {
+        return frame.get(offset) == KEYFRAME;
+    }
+
+    /**
+     * Applies a frame to the receiver's copy of an elevator's status. Fields that
+     * are not in the frame keep their current values.
+     *
+     * @param frame  The buffer holding the frame.
+     * @param offset The offset of the frame within the buffer.
+     * @param status The status to update.
+     */
+    public static void apply(ByteBuffer frame, int offset, ElevatorStatus status) {
+        status.setElevator(elevatorOf(frame, offset));
+        int mask = frame.get(offset + 3) & ALL_FIELDS;
+        int position = offset + HEADER_LEN;
+        for (int f = 0; f < NUM_FIELDS; f++) {
+            if ((mask & (1 << f)) != 0) {
+                setField(status, f, frame.getShort(position));
+                position += 2;
+            }
+        }
+    }
+
+    /**
+     * Reads one of the encoded fields of a status.
+     *
+     * @param status The status to read from.
+     * @param f      The field number, which is also its bit in the mask.
+     * @return The value of the field.
+     */
+    private static int field(ElevatorStatus status, int f) {
+        switch (f) {
+            case 0:
+                return status.getFloor();
+            case 1:
+                return status.getDirection().ordinal();
+            case 2:
+                return status.isShutDown() ? 1 : 0;
+            case 3:
+                return status.getRiders();
+            case 4:
+                return status.getDoor();
+            case 5:
+                return status.getDestinationFloor();
+            case 6:
+                return status.getOriginFloor();
+            default:
+                return status.isComplete() ? 1 : 0;
+        }
+    }
+
+    /**
+     * Writes one of the encoded fields of a status.
+     *
+     * @param status The status to write to.
+     * @param f      The field number, which is also its bit in the mask.
+     * @param value  The new value of the field.
+     */
+    private static void setField(ElevatorStatus status, int f, int value) {
+        switch (f) {
+            case 0:
+                status.setFloor(value);
+                break;
+            case 1:
+                status.setDirection(value == Direction.Down.ordinal() ? Direction.Down : Direction.Up);
+                break;
+            case 2:
+                if (value == 1) {
+                    status.markShutDown(); // Elevators never come back from a shut down
+                }
+                break;
+            case 3:
+                status.setRiders(value);
+                break;
+            case 4:
+                status.setDoor(value);
+                break;
+            case 5:
+                status.setDestinationFloor(value);
+                break;
+            case 6:
+                status.setOriginFloor(value);
+                break;
+            default:
+                status.setComplete(value == 1);
+                break;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Test suite for the delta encoding of elevator status updates.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class StatusDeltaTest {
+
+    /** The encoder under test. */
+    private StatusDelta encoder;
+
+    /** The buffer frames are encoded into. */
+    private ByteBuffer frame;
+
+    /** The status being sent. */
+    private ElevatorStatus status;
+
+    /** The receiver's copy of the status. */
+    private ElevatorStatus received;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new StatusDelta(2);
+        frame = ByteBuffer.allocate(StatusDelta.MAX_FRAME_LEN);
+        status = new ElevatorStatus();
+        status.setElevator(1);
+        received = new ElevatorStatus();
+    }
+
+    /**
+     * Test that the first frame for an elevator is a full keyframe
+     */
+    @Test
+    void testFirstFrameIsKeyframe() {
+        status.setFloor(7);
+        status.setDirection(Direction.Down);
+        status.setRiders(3);
+
+        assertEquals(StatusDelta.MAX_FRAME_LEN, encoder.encode(status, frame));
+        assertTrue(StatusDelta.isKeyframe(frame, 0));
+        assertEquals(1, StatusDelta.elevatorOf(frame, 0));
+
+        StatusDelta.apply(frame, 0, received);
+        assertEquals(status.toString(), received.toString());
+    }
+
+    /**
+     * Test that later frames only carry the fields that changed
+     */
+    @Test
+    void testDeltaCarriesChangedFields() {
+        encoder.encode(status, frame);
+        StatusDelta.apply(frame, 0, received);
+
+        // Nothing changed, so nothing needs to be sent
+        assertEquals(0, encoder.encode(status, frame));
+
+        status.setFloor(4);
+        int length = encoder.encode(status, frame);
+        assertFalse(StatusDelta.isKeyframe(frame, 0));
+        assertEquals(6, length); // Header and one field
+        StatusDelta.apply(frame, 0, received);
+        assertEquals(4, received.getFloor());
+
+        status.markShutDown();
+        status.setDoor(-2);
+        assertEquals(8, encoder.encode(status, frame));
+        StatusDelta.apply(frame, 0, received);
+        assertTrue(received.isShutDown());
+        assertEquals(-2, received.getDoor());
+        assertEquals(4, received.getFloor());
+    }
+
+    /**
+     * Test that a keyframe is sent periodically even if nothing changed
+     */
+    @Test
+    void testPeriodicKeyframe() {
+        encoder.encode(status, frame);
+        int keyframes = 0;
+        for (int i = 0; i < StatusDelta.KEYFRAME_INTERVAL; i++) {
+            if (encoder.encode(status, frame) > 0 && StatusDelta.isKeyframe(frame, 0)) {
+                keyframes++;
+            }
+        }
+        assertEquals(1, keyframes);
+    }
+
+    /**
+     * Test that a frame cut short is not taken as complete
+     */
+    @Test
+    void testIncompleteFrame() {
+        status.setFloor(4);
+        int length = encoder.encode(status, frame);
+        frame.limit(length);
+        assertTrue(StatusDelta.isComplete(frame, 0));
+        frame.limit(length - 1);
+        assertFalse(StatusDelta.isComplete(frame, 0));
+        frame.limit(2);
+        assertFalse(StatusDelta.isComplete(frame, 0));
+    }
+}
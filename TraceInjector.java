@@ -0,0 +1,122 @@
+import java.time.LocalTime;
+import java.util.Scanner;
+
+/**
+ * Reads requests from an input file and works out when each one should be
+ * sent, based on the timestamps in the file. Requests are injected open-loop:
+ * their send times only depend on the trace, never on how fast earlier requests
+ * were served, so bursts in the trace reach the scheduler as bursts.
+ *
+ * The gaps between requests can be shrunk by a speed-up factor, set with the
+ * `floor.speedup` system property.
+ *
+ * A timestamp more than 12 hours earlier than the one before it is taken to be
+ * on the next day, so a trace can run past midnight. A request that is only a
+ * little out of order is sent straight after the one before it.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class TraceInjector {
+
+    /** The system property used to set the speed-up factor of the trace. */
+    public static final String SPEEDUP_PROPERTY = "floor.speedup";
+
+    /** The number of nanoseconds in a day. */
+    private static final long NANOS_PER_DAY = 24L * 60 * 60 * 1_000_000_000L;
+
+    /** How far back a timestamp must jump to be taken as passing midnight, in nanoseconds. */
+    private static final long MIDNIGHT_JUMP_NANOS = NANOS_PER_DAY / 2;
+
+    /** The log for the floor subsystem. */
+    private static final Log LOG = Log.get("FloorSubsystem");
+
+    /** The reader of the input request file. */
+    private final Scanner reader;
+
+    /** How many times faster than recorded the trace is played back. */
+    private final double speedup;
+
+    /** The timestamp of the first request in the trace. */
+    private LocalTime first;
+
+    /** The timestamp the last request read was sent by. */
+    private LocalTime previous;
+
+    /** The number of times the trace has passed midnight. */
+    private long days;
+
+    /** When the last request read should be sent, in milliseconds after the first. */
+    private long offset;
+
+    /**
+     * Creates a new injector that plays the trace back at its recorded pace,
+     * sped up by the `floor.speedup` system property if it is set.
+     *
+     * @param reader The reader of the input request file.
+     */
+    public TraceInjector(Scanner reader) {
+        this(reader, Double.parseDouble(System.getProperty(SPEEDUP_PROPERTY, "1")));
+    }
+
+    /**
+     * Creates a new injector.
+     *
+     * @param reader  The reader of the input request file.
+     * @param speedup How many times faster than recorded the trace is played back.
+     * @throws IllegalArgumentException If the speed-up is not a positive number.
+     */
+    public TraceInjector(Scanner reader, double speedup) {
+        if (!(speedup > 0)) {
+            throw new IllegalArgumentException("Speed-up must be a positive number, got " + speedup);
+        }
+        this.reader = reader;
+        this.speedup = speedup;
+    }
+
+    /**
+     * Reads the next request from the trace and works out when it should be
+     * sent. The send time is available from getOffset().
+     *
+     * @return The next request, or null if there are no more requests.
+     */
+    public ElevatorRequest next() {
+        ElevatorRequest request = FloorSubsystem.nextRequest(this.reader);
+        if (request == null) {
+            return null;
+        }
+
+        LocalTime timestamp = request.getTimestamp();
+        if (this.first == null) {
+            this.first = timestamp;
+        } else if (timestamp.isBefore(this.previous)) {
+            long jump = this.previous.toNanoOfDay() - timestamp.toNanoOfDay();
+            if (jump > MIDNIGHT_JUMP_NANOS) {
+                this.days++; // The trace went past midnight
+            } else {
+                LOG.warn("Request at " + timestamp + " is earlier than the one at " + this.previous
+                        + ", so it is sent straight after it.");
+                timestamp = this.previous;
+            }
+        }
+        this.previous = timestamp;
+
+        long nanos = timestamp.toNanoOfDay() - this.first.toNanoOfDay() + this.days * NANOS_PER_DAY;
+        this.offset = (long) (nanos / 1_000_000.0 / this.speedup);
+        return request;
+    }
+
+    /**
+     * Gets when the last request read should be sent.
+     *
+     * @return The send time of the last request in milliseconds after the first
+     *         request of the trace.
+     */
+    public long getOffset() {
+        return this.offset;
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.Scanner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the functionality of the TraceInjector.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class TraceInjectorTest {
+
+    /**
+     * Tests that requests are scheduled by the time between their timestamps.
+     */
+    @Test
+    void testOffsetsFollowTimestamps() throws FileNotFoundException {
+        TraceInjector trace = new TraceInjector(new Scanner(new File(FloorSubsystem.DATA_FILE)), 1);
+
+        assertNotNull(trace.next()); // 14:05:15.0
+        assertEquals(0, trace.getOffset());
+        assertNotNull(trace.next()); // 14:07:45.0
+        assertEquals(150_000, trace.getOffset());
+        assertNotNull(trace.next()); // 14:08:15.03
+        assertEquals(180_030, trace.getOffset());
+    }
+
+    /**
+     * Tests that the speed-up factor shrinks the time between requests.
+     */
+    @Test
+    void testSpeedup() {
+        TraceInjector trace = new TraceInjector(new Scanner("14:05:15.0 2 Up 4\n14:07:45.0 5 Down 1\n"), 10);
+        trace.next();
+        trace.next();
+        assertEquals(15_000, trace.getOffset());
+    }
+
+    /**
+     * Tests that a trace which passes midnight keeps moving forward in time.
+     */
+    @Test
+    void testMidnight() {
+        TraceInjector trace = new TraceInjector(new Scanner("23:59:59.0 2 Up 4\n0:00:01.0 5 Down 1\n"), 1);
+        trace.next();
+        trace.next();
+        assertEquals(2_000, trace.getOffset());
+    }
+
+    /**
+     * Tests that a request slightly out of order is sent straight after the one
+     * before it instead of a day later.
+     */
+    @Test
+    void testOutOfOrder() {
+        TraceInjector trace = new TraceInjector(new Scanner(
+                "14:05:15.0 2 Up 4\n14:05:20.0 5 Down 1\n14:05:18.0 3 Up 6\n14:05:21.0 1 Up 2\n"), 1);
+        trace.next();
+        trace.next();
+        assertEquals(5_000, trace.getOffset());
+        trace.next();
+        assertEquals(5_000, trace.getOffset());
+        trace.next();
+        assertEquals(6_000, trace.getOffset());
+    }
+
+    /**
+     * Tests that the end of the trace is reported with null.
+     */
+    @Test
+    void testEndOfTrace() {
+        TraceInjector trace = new TraceInjector(new Scanner("14:05:15.0 2 Up 4\n"), 1);
+        assertNotNull(trace.next());
+        assertNull(trace.next());
+        assertThrows(IllegalArgumentException.class, () -> new TraceInjector(new Scanner(""), 0));
+    }
+}
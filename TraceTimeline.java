@@ -0,0 +1,93 @@
+/**
+ * Works out when the passengers of a request called the elevator, on the clock of
+ * the elevator that received it. Every request carries the trace timestamp of its
+ * hall call, which is a time of day rather than a time on any subsystem's clock.
+ * The floor subsystem sends each request as many milliseconds after the first as
+ * its timestamp is, divided by the `floor.speedup` factor, so trace times only
+ * differ from clock times by a fixed offset.
+ *
+ * That offset is taken to be the smallest difference seen between when a request
+ * arrived and its scaled timestamp, i.e. the request that arrived fastest is
+ * assumed to have arrived as soon as it was made. A hall call is therefore never
+ * later than the request arriving, and the estimate only improves as more
+ * requests arrive. Like TraceInjector, a timestamp more than 12 hours earlier
+ * than the one before it is taken to be on the next day.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class TraceTimeline {
+
+    /** The number of nanoseconds in a day. */
+    private static final long NANOS_PER_DAY = 24L * 60 * 60 * 1_000_000_000L;
+
+    /** How far a timestamp must jump to be taken as passing midnight, in nanoseconds. */
+    private static final long MIDNIGHT_JUMP_NANOS = NANOS_PER_DAY / 2;
+
+    /** How many times faster than recorded the floor plays the trace back. */
+    private final double speedup;
+
+    /** The timestamp of the last request seen, in nanoseconds since midnight, or -1 if there was none. */
+    private long previous;
+
+    /** The number of times the trace has passed midnight. */
+    private long days;
+
+    /** The smallest difference seen between a clock time and a scaled trace time, in milliseconds. */
+    private long offset;
+
+    /**
+     * Creates a timeline for a trace played back at the speed-up set by the
+     * `floor.speedup` system property, which should match the floor subsystem's.
+     */
+    public TraceTimeline() {
+        this(Double.parseDouble(System.getProperty(TraceInjector.SPEEDUP_PROPERTY, "1")));
+    }
+
+    /**
+     * Creates a timeline that has not seen any requests yet.
+     *
+     * @param speedup How many times faster than recorded the floor plays the
+     *                trace back.
+     * @throws IllegalArgumentException If the speed-up is not a positive number.
+     */
+    public TraceTimeline(double speedup) {
+        if (!(speedup > 0)) {
+            throw new IllegalArgumentException("Speed-up must be a positive number, got " + speedup);
+        }
+        this.speedup = speedup;
+        this.previous = -1;
+        this.offset = Long.MAX_VALUE;
+    }
+
+    /**
+     * Works out when a request's passengers called the elevator.
+     *
+     * @param timestampNanos The request's timestamp, in nanoseconds since
+     *                       midnight.
+     * @param now            The time the request arrived, in milliseconds on the
+     *                       elevator's clock.
+     * @return The time of the hall call in milliseconds on the elevator's clock,
+     *         which is never later than now.
+     */
+    public synchronized long hallCallTime(long timestampNanos, long now) {
+        long day = this.days;
+        long jump = this.previous < 0 ? 0 : timestampNanos - this.previous;
+        if (jump < -MIDNIGHT_JUMP_NANOS) {
+            day = ++this.days; // The trace went past midnight
+        } else if (jump > MIDNIGHT_JUMP_NANOS) {
+            day--; // A request from before midnight that arrived late
+        }
+        if (day == this.days) {
+            this.previous = timestampNanos;
+        }
+
+        long trace = (long) ((day * NANOS_PER_DAY + timestampNanos) / 1_000_000.0 / this.speedup);
+        this.offset = Math.min(this.offset, now - trace);
+        return trace + this.offset;
+    }
+}
@@ -0,0 +1,71 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the functionality of the TraceTimeline.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class TraceTimelineTest {
+
+    /**
+     * Gets a trace timestamp.
+     *
+     * @param time The time of day, e.g. `14:05:15`.
+     * @return The time in nanoseconds since midnight.
+     */
+    private static long at(String time) {
+        return LocalTime.parse(time).toNanoOfDay();
+    }
+
+    /**
+     * Tests that hall calls are placed on the clock by the request that arrived
+     * fastest, and never after the request arrived.
+     */
+    @Test
+    void testHallCalls() {
+        TraceTimeline timeline = new TraceTimeline(1);
+
+        // The first request is taken to have arrived as soon as it was made
+        assertEquals(1_000, timeline.hallCallTime(at("14:05:15"), 1_000));
+
+        // This one was made 5 s later, but took 2 s to arrive
+        assertEquals(6_000, timeline.hallCallTime(at("14:05:20"), 8_000));
+
+        // This one arrived faster than the first, so the first is now known to have been late
+        assertEquals(10_000, timeline.hallCallTime(at("14:05:30"), 10_000));
+        assertEquals(5_000, timeline.hallCallTime(at("14:05:25"), 12_000));
+    }
+
+    /**
+     * Tests that trace times are shrunk by the floor's speed-up.
+     */
+    @Test
+    void testSpeedup() {
+        TraceTimeline timeline = new TraceTimeline(10);
+        timeline.hallCallTime(at("14:05:15"), 0);
+        assertEquals(1_000, timeline.hallCallTime(at("14:05:25"), 3_000));
+        assertThrows(IllegalArgumentException.class, () -> new TraceTimeline(0));
+    }
+
+    /**
+     * Tests that a trace which passes midnight keeps moving forward in time, even
+     * if a request from before midnight arrives late.
+     */
+    @Test
+    void testMidnight() {
+        TraceTimeline timeline = new TraceTimeline(1);
+        timeline.hallCallTime(at("23:59:58"), 0);
+        assertEquals(3_000, timeline.hallCallTime(at("00:00:01"), 3_000));
+        assertEquals(1_000, timeline.hallCallTime(at("23:59:59"), 4_000));
+        assertEquals(4_000, timeline.hallCallTime(at("00:00:02"), 5_000));
+    }
+}
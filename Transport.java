@@ -0,0 +1,83 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Carries messages between the subsystems. Every endpoint is addressed by a port
+ * number on the local machine, the same as over UDP, so the subsystems do not
+ * need to know which implementation they are talking through.
+ *
+ * The implementation is chosen with the `transport` system property: `udp` (the
+ * default) sends real UDP datagrams over loopback, and `memory` passes messages
+ * through in-memory queues so the whole system can run in one JVM.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public interface Transport extends Closeable {
+
+    /** The system property that selects the transport implementation. */
+    String PROPERTY = "transport";
+
+    /** The property value selecting UDP datagrams. */
+    String UDP = "udp";
+
+    /** The property value selecting in-memory queues. */
+    String MEMORY = "memory";
+
+    /**
+     * Sends a message to the endpoint bound to a port. The message is sent from
+     * the first port this transport is bound to.
+     *
+     * @param message The buffer holding the message, from its position up to its
+     *                limit. The position is advanced past the sent bytes.
+     * @param port    The port of the endpoint to send to.
+     */
+    void send(ByteBuffer message, int port) throws IOException;
+
+    /**
+     * Waits for a message to arrive on any of the ports this transport is bound
+     * to. When several ports have messages waiting, they take turns so a busy port
+     * cannot starve the others.
+     *
+     * @param into          The buffer to receive into. It is cleared first, and
+     *                      holds the message between its position and limit
+     *                      afterwards.
+     * @param timeoutMillis The longest time to wait in milliseconds, or 0 to wait
+     *                      forever.
+     * @return The port the message arrived on, or -1 if the wait timed out.
+     */
+    int receive(ByteBuffer into, long timeoutMillis) throws IOException;
+
+    /**
+     * Gets the port that the last received message was sent from.
+     *
+     * @return The sender's port.
+     */
+    int sourcePort();
+
+    /**
+     * Opens a transport of the kind selected by the `transport` system property.
+     * The messages through it are counted in the metrics.
+     *
+     * @param ports The ports to bind to, which may be none if the transport is only
+     *              used for sending.
+     * @return The opened transport.
+     * @throws IOException If one of the ports is already in use.
+     */
+    static Transport open(int... ports) throws IOException {
+        String kind = System.getProperty(PROPERTY, UDP);
+        switch (kind) {
+            case UDP:
+                return new MeteredTransport(new UdpTransport(ports));
+            case MEMORY:
+                return new MeteredTransport(MemoryNetwork.SYSTEM.bind(ports));
+            default:
+                throw new IllegalArgumentException("Unknown transport: " + kind);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends messages as UDP datagrams over the loopback interface. Each bound port
+ * gets its own non-blocking channel, and a selector waits for any of them to
+ * become readable. Messages are sent from the first bound port.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class UdpTransport implements Transport {
+
+    /** How long to wait before sending again when the socket's send buffer is full, in nanoseconds. */
+    private static final long SEND_RETRY_NANOS = 50_000;
+
+    /** The ports this transport is bound to. */
+    private final int[] ports;
+
+    /** One channel for each bound port. */
+    private final DatagramChannel[] channels;
+
+    /** The channel messages are sent from. */
+    private final DatagramChannel sender;
+
+    /** Waits for any of the channels to become readable. */
+    private final Selector selector;
+
+    /** The address of the local host, looked up once. */
+    private final InetAddress localhost;
+
+    /**
+     * The address of each port sent to so far, so they are only created once. A
+     * transport only sends to a few ports, so they are kept in a short array that
+     * is copied whenever a port is added.
+     */
+    private volatile InetSocketAddress[] addresses;
+
+    /** The channel to try first on the next receive. */
+    private int next;
+
+    /** The port the last received message was sent from. */
+    private int sourcePort;
+
+    /**
+     * Opens a channel bound to each of the given ports.
+     *
+     * @param ports The ports to bind to, which may be none if the transport is only
+     *              used for sending.
+     * @throws IOException If one of the ports is already in use.
+     */
+    public UdpTransport(int... ports) throws IOException {
+        this.ports = ports.clone();
+        this.channels = new DatagramChannel[ports.length];
+        this.selector = Selector.open();
+        this.localhost = InetAddress.getLocalHost();
+        this.addresses = new InetSocketAddress[0];
+
+        try {
+            for (int i = 0; i < ports.length; i++) {
+                this.channels[i] = DatagramChannel.open();
+                this.channels[i].bind(new InetSocketAddress(ports[i]));
+                this.channels[i].configureBlocking(false);
+                this.channels[i].register(this.selector, SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            for (DatagramChannel channel : this.channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+            this.selector.close();
+            throw e;
+        }
+        this.sender = ports.length > 0 ? this.channels[0] : DatagramChannel.open();
+    }
+
+    @Override
+    public void send(ByteBuffer message, int port) throws IOException {
+        InetSocketAddress address = this.address(port);
+
+        // The sender is non-blocking, so it sends nothing if the socket's send buffer is full
+        while (this.sender.send(message, address) == 0 && message.hasRemaining()) {
+            LockSupport.parkNanos(SEND_RETRY_NANOS);
+        }
+    }
+
+    /**
+     * Gets the address of a port on the local host without allocating, once the
+     * port has been sent to.
+     *
+     * @param port The port.
+     * @return The port's address.
+     */
+    private InetSocketAddress address(int port) {
+        for (InetSocketAddress address : this.addresses) {
+            if (address.getPort() == port) {
+                return address;
+            }
+        }
+        return this.addAddress(port);
+    }
+
+    /**
+     * Creates the address of a port, unless another thread just has.
+     *
+     * @param port The port.
+     * @return The port's address.
+     */
+    private synchronized InetSocketAddress addAddress(int port) {
+        InetSocketAddress[] addresses = this.addresses;
+        for (InetSocketAddress address : addresses) {
+            if (address.getPort() == port) {
+                return address;
+            }
+        }
+        InetSocketAddress address = new InetSocketAddress(this.localhost, port);
+        InetSocketAddress[] more = Arrays.copyOf(addresses, addresses.length + 1);
+        more[addresses.length] = address;
+        this.addresses = more;
+        return address;
+    }
+
+    @Override
+    public int receive(ByteBuffer into, long timeoutMillis) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (true) {
+
+            // Try every channel once, starting after the one read last time
+            for (int i = 0; i < this.channels.length; i++) {
+                int c = (this.next + i) % this.channels.length;
+                into.clear();
+                InetSocketAddress source = (InetSocketAddress) this.channels[c].receive(into);
+                if (source != null) {
+                    into.flip();
+                    this.next = c + 1;
+                    this.sourcePort = source.getPort();
+                    return this.ports[c];
+                }
+            }
+
+            // Nothing is waiting, so wait for a channel to become readable
+            if (timeoutMillis == 0) {
+                this.selector.select();
+            } else {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return -1;
+                }
+                this.selector.select(remaining);
+            }
+            this.selector.selectedKeys().clear();
+        }
+    }
+
+    @Override
+    public int sourcePort() {
+        return this.sourcePort;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DatagramChannel channel : this.channels) {
+            channel.close();
+        }
+        if (this.channels.length == 0) {
+            this.sender.close(); // Otherwise the sender is the first channel, which is already closed
+        }
+        this.selector.close();
+    }
+}
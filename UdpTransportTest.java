@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the UDP transport.
+ *
+ * WARNING: These tests must be run when ports 6551, 6552 and 6553 are not in use.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+class UdpTransportTest {
+
+    /**
+     * Tests that messages arrive on the port they were sent to, and that ports
+     * with waiting messages take turns.
+     */
+    @Test
+    void testReceiveTakesTurns() throws IOException, InterruptedException {
+        try (Transport receiver = new UdpTransport(6551, 6552); Transport sender = new UdpTransport()) {
+            for (int i = 0; i < 2; i++) {
+                sender.send(ByteBuffer.wrap(new byte[] { 1 }), 6551);
+                sender.send(ByteBuffer.wrap(new byte[] { 2 }), 6552);
+            }
+            Thread.sleep(100); // Let every datagram arrive
+
+            ByteBuffer into = ByteBuffer.allocate(10);
+            int first = receiver.receive(into, 1000);
+            assertEquals(first == 6551 ? 1 : 2, into.get(0));
+            int second = receiver.receive(into, 1000);
+            assertNotEquals(first, second);
+            assertEquals(first, receiver.receive(into, 1000));
+            assertEquals(second, receiver.receive(into, 1000));
+        }
+    }
+
+    /**
+     * Tests that a transport that cannot bind every port closes the ones it did
+     * bind, so they can be bound again, and leaves the other transport alone.
+     */
+    @Test
+    void testBindFailureReleasesPorts() throws IOException {
+        try (Transport taken = new UdpTransport(6553)) {
+            assertThrows(IOException.class, () -> new UdpTransport(6551, 6553));
+            try (Transport again = new UdpTransport(6551)) {
+                again.send(ByteBuffer.wrap(new byte[] { 1 }), 6553);
+                assertEquals(6553, taken.receive(ByteBuffer.allocate(1), 1000));
+            }
+        }
+    }
+
+    /**
+     * Tests that receiving times out when nothing is sent.
+     */
+    @Test
+    void testTimeout() throws IOException {
+        try (Transport receiver = new UdpTransport(6551)) {
+            assertEquals(-1, receiver.receive(ByteBuffer.allocate(10), 20));
+        }
+    }
+}
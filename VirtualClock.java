@@ -0,0 +1,43 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A simulation clock that never blocks. Sleeping only advances simulated time,
+ * so a simulation runs as fast as the processor allows.
+ *
+ * Each thread keeps its own timeline, so threads that sleep side by side (e.g.
+ * several elevators moving at once) overlap instead of adding up. A sleep only
+ * advances the sleeping thread's timeline, and the time a thread reads is always
+ * on its own timeline. A thread's timeline starts at the latest time reached by
+ * any thread when it first uses the clock, so a thread started late does not
+ * start in the past.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class VirtualClock implements SimulationClock {
+
+    /** The latest simulated time reached by any thread in milliseconds. */
+    private final AtomicLong now = new AtomicLong();
+
+    /** The simulated time reached by each thread in milliseconds. */
+    private final ThreadLocal<long[]> threadTime = ThreadLocal.withInitial(() -> new long[] { this.now.get() });
+
+    @Override
+    public long millis() {
+        return this.threadTime.get()[0];
+    }
+
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        long[] time = this.threadTime.get();
+        time[0] += Math.max(millis, 0);
+        this.now.accumulateAndGet(time[0], Math::max);
+    }
+}
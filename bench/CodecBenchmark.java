@@ -0,0 +1,166 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of encoding and decoding the messages the subsystems send
+ * each other: ElevatorRequests in their wire format and as trace lines, and
+ * ElevatorStatus records both into new arrays and into a reused buffer. Run with
+ * `-prof gc` (as `make bench` does) to see how many bytes each call allocates.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    /** ElevatorRequest(String), which parses a line of the input file. */
+    private static final MethodHandle REQUEST_FROM_LINE = Handles.constructor("ElevatorRequest", String.class);
+
+    /** ElevatorRequest(byte[]), which decodes the wire format. */
+    private static final MethodHandle REQUEST_FROM_BYTES = Handles.constructor("ElevatorRequest", byte[].class);
+
+    /** ElevatorRequest.getBytes, which encodes the wire format. */
+    private static final MethodHandle REQUEST_GET_BYTES = Handles.method("ElevatorRequest", "getBytes", byte[].class);
+
+    /** ElevatorRequest.setElevator, used to fill in the request being encoded. */
+    private static final MethodHandle REQUEST_SET_ELEVATOR = Handles.method("ElevatorRequest", "setElevator",
+            void.class, int.class);
+
+    /** ElevatorStatus(), which starts an elevator on the ground floor. */
+    private static final MethodHandle STATUS_NEW = Handles.constructor("ElevatorStatus");
+
+    /** ElevatorStatus(byte[]), which decodes a status into a new object. */
+    private static final MethodHandle STATUS_FROM_BYTES = Handles.constructor("ElevatorStatus", byte[].class);
+
+    /** ElevatorStatus.getBytes, which encodes a status into a new array. */
+    private static final MethodHandle STATUS_GET_BYTES = Handles.method("ElevatorStatus", "getBytes", byte[].class);
+
+    /** ElevatorStatus.writeTo, which encodes a status into an existing buffer. */
+    private static final MethodHandle STATUS_WRITE_TO = Handles.method("ElevatorStatus", "writeTo", void.class,
+            ByteBuffer.class, int.class);
+
+    /** ElevatorStatus.readFrom, which decodes a status into an existing object. */
+    private static final MethodHandle STATUS_READ_FROM = Handles.method("ElevatorStatus", "readFrom", void.class,
+            ByteBuffer.class, int.class);
+
+    /** ElevatorStatus.setFloor, used to fill in the status being encoded. */
+    private static final MethodHandle STATUS_SET_FLOOR = Handles.method("ElevatorStatus", "setFloor", void.class,
+            int.class);
+
+    /** ElevatorStatus.setRiders, used to fill in the status being encoded. */
+    private static final MethodHandle STATUS_SET_RIDERS = Handles.method("ElevatorStatus", "setRiders", void.class,
+            int.class);
+
+    /** The line of the input file to parse. */
+    @Param({ "14:05:15.0 2 Up 4", "14:08:15.03 13 Down 2" })
+    public String line;
+
+    /** The request to encode. */
+    private Object request;
+
+    /** The encoded request to decode. */
+    private byte[] requestBytes;
+
+    /** The status to encode. */
+    private Object status;
+
+    /** The encoded status to decode. */
+    private byte[] statusBytes;
+
+    /** The reused buffer holding an encoded status. */
+    private ByteBuffer statusBuffer;
+
+    /** The reused status to decode into. */
+    private Object statusInto;
+
+    /**
+     * Encodes the request and status that the decoding benchmarks read.
+     */
+    @Setup
+    public void setUp() throws Throwable {
+        this.request = REQUEST_FROM_LINE.invokeExact((Object) this.line);
+        REQUEST_SET_ELEVATOR.invokeExact(this.request, 3);
+        this.requestBytes = (byte[]) (Object) REQUEST_GET_BYTES.invokeExact(this.request);
+
+        this.status = STATUS_NEW.invokeExact();
+        STATUS_SET_FLOOR.invokeExact(this.status, 12);
+        STATUS_SET_RIDERS.invokeExact(this.status, 4);
+        this.statusBytes = (byte[]) (Object) STATUS_GET_BYTES.invokeExact(this.status);
+        this.statusBuffer = ByteBuffer.wrap(this.statusBytes.clone());
+        this.statusInto = STATUS_NEW.invokeExact();
+    }
+
+    /** Parses a line of the input file into a request. */
+    @Benchmark
+    public Object requestParseLine() throws Throwable {
+        return REQUEST_FROM_LINE.invokeExact((Object) this.line);
+    }
+
+    /** Encodes a request into a new array. */
+    @Benchmark
+    public Object requestEncode() throws Throwable {
+        return REQUEST_GET_BYTES.invokeExact(this.request);
+    }
+
+    /** Decodes a request into a new object. */
+    @Benchmark
+    public Object requestDecode() throws Throwable {
+        return REQUEST_FROM_BYTES.invokeExact((Object) this.requestBytes);
+    }
+
+    /** Encodes a request and decodes it again, as it is on every hop. */
+    @Benchmark
+    public Object requestRoundTrip() throws Throwable {
+        return REQUEST_FROM_BYTES.invokeExact(REQUEST_GET_BYTES.invokeExact(this.request));
+    }
+
+    /** Encodes a status into a new array. */
+    @Benchmark
+    public Object statusEncode() throws Throwable {
+        return STATUS_GET_BYTES.invokeExact(this.status);
+    }
+
+    /** Decodes a status into a new object. */
+    @Benchmark
+    public Object statusDecode() throws Throwable {
+        return STATUS_FROM_BYTES.invokeExact((Object) this.statusBytes);
+    }
+
+    /** Encodes a status into a new array and decodes it into a new object. */
+    @Benchmark
+    public Object statusRoundTrip() throws Throwable {
+        return STATUS_FROM_BYTES.invokeExact(STATUS_GET_BYTES.invokeExact(this.status));
+    }
+
+    /** Encodes a status into a reused buffer and decodes it into a reused object. */
+    @Benchmark
+    public Object statusRoundTripInPlace() throws Throwable {
+        STATUS_WRITE_TO.invokeExact(this.status, (Object) this.statusBuffer, 0);
+        STATUS_READ_FROM.invokeExact(this.statusInto, (Object) this.statusBuffer, 0);
+        return this.statusInto;
+    }
+}
@@ -0,0 +1,119 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Looks up the simulator's constructors and methods for the benchmarks. JMH
+ * needs benchmarks to be in a package, but the simulator's classes are in the
+ * default package, which code in a package cannot name. Calls go through method
+ * handles instead, with every object type erased to Object. Held in static final
+ * fields, the handles are constants to the JIT compiler, so the calls are
+ * inlined just like direct calls.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+final class Handles {
+
+    /** Only has static methods. */
+    private Handles() {
+    }
+
+    /**
+     * Gets one of the simulator's classes.
+     *
+     * @param name The name of the class, e.g. `ElevatorRequest`.
+     * @return The class.
+     */
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("The simulator's classes must be on the class path", e);
+        }
+    }
+
+    /**
+     * Looks up a public constructor. The handle returns an Object and takes Object
+     * in place of every object parameter.
+     *
+     * @param owner      The name of the class.
+     * @param parameters The constructor's parameter types.
+     * @return The constructor's handle.
+     */
+    static MethodHandle constructor(String owner, Class<?>... parameters) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup()
+                    .findConstructor(type(owner), MethodType.methodType(void.class, parameters));
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up a public instance method. The handle takes the receiver as its
+     * first parameter, and Object in place of every object type.
+     *
+     * @param owner      The name of the class.
+     * @param name       The name of the method.
+     * @param result     The method's return type.
+     * @param parameters The method's parameter types.
+     * @return The method's handle.
+     */
+    static MethodHandle method(String owner, String name, Class<?> result, Class<?>... parameters) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup()
+                    .findVirtual(type(owner), name, MethodType.methodType(result, parameters));
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Looks up a public static method. The handle takes Object in place of every
+     * object type.
+     *
+     * @param owner      The name of the class.
+     * @param name       The name of the method.
+     * @param result     The method's return type.
+     * @param parameters The method's parameter types.
+     * @return The method's handle.
+     */
+    static MethodHandle staticMethod(String owner, String name, Class<?> result, Class<?>... parameters) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup()
+                    .findStatic(type(owner), name, MethodType.methodType(result, parameters));
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Replaces every object type in a method type with Object, leaving primitive
+     * types alone.
+     *
+     * @param type The method type.
+     * @return The erased method type.
+     */
+    private static MethodType erase(MethodType type) {
+        MethodType erased = type;
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (!type.parameterType(i).isPrimitive()) {
+                erased = erased.changeParameterType(i, Object.class);
+            }
+        }
+        if (!type.returnType().isPrimitive()) {
+            erased = erased.changeReturnType(Object.class);
+        }
+        return erased;
+    }
+}
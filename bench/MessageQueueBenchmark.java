@@ -0,0 +1,392 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the message queues with producer and consumer threads running at the
+ * same time: one producer to one consumer, many producers to one consumer (as
+ * with elevators publishing to the scheduler), and many producers to many
+ * consumers. Throughput mode reports puts and takes per second, and sample time
+ * mode the latency percentiles of each put and take. Other ratios can be run with
+ * JMH's `-tg` option, e.g. `-tg 8,1` for eight producers to one consumer.
+ *
+ * MessageQueue is measured both with a capacity, where full queues make the
+ * producers wait, and without one. MpscMessageQueue only allows one consumer, so
+ * it is only measured in the groups with one consumer. SynchronizedListQueue, the
+ * original queue, is measured in every group as the baseline. Without a capacity
+ * the producers could outrun the consumers until memory runs out, so they wait
+ * instead once WINDOW messages are in the queue.
+ *
+ * Every put and take gives up after a short wait, so the threads can stop when
+ * the other side of the group has already finished an iteration.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageQueueBenchmark {
+
+    /** The message passed through the queues, the size of an encoded ElevatorRequest. */
+    private static final Object MESSAGE = new byte[24];
+
+    /** The longest a put or take waits before giving up, in milliseconds. */
+    private static final long TIMEOUT_MILLIS = 10;
+
+    /** The most messages waiting in a queue without a capacity. */
+    private static final int WINDOW = 1024;
+
+    /** MessageQueue(), without a capacity. */
+    private static final MethodHandle QUEUE_NEW = Handles.constructor("MessageQueue");
+
+    /** MessageQueue(int capacity). */
+    private static final MethodHandle QUEUE_NEW_BOUNDED = Handles.constructor("MessageQueue", int.class);
+
+    /** MessageQueue.putMessage(T), which waits for room. */
+    private static final MethodHandle QUEUE_PUT = Handles.method("MessageQueue", "putMessage", void.class,
+            Object.class);
+
+    /** MessageQueue.putMessage(T, long), which gives up if there is no room in time. */
+    private static final MethodHandle QUEUE_PUT_TIMED = Handles.method("MessageQueue", "putMessage", boolean.class,
+            Object.class, long.class);
+
+    /** MessageQueue.getMessage(long). */
+    private static final MethodHandle QUEUE_GET = Handles.method("MessageQueue", "getMessage", Object.class,
+            long.class);
+
+    /** MpscMessageQueue(). */
+    private static final MethodHandle MPSC_NEW = Handles.constructor("MpscMessageQueue");
+
+    /** MpscMessageQueue.putMessage(T). */
+    private static final MethodHandle MPSC_PUT = Handles.method("MpscMessageQueue", "putMessage", void.class,
+            Object.class);
+
+    /** MpscMessageQueue.getMessage(long). */
+    private static final MethodHandle MPSC_GET = Handles.method("MpscMessageQueue", "getMessage", Object.class,
+            long.class);
+
+    /**
+     * The number of messages in a queue without a capacity, so producers can wait
+     * for the consumers to catch up.
+     */
+    public abstract static class Window {
+
+        /** The number of messages put but not yet taken. */
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        /**
+         * Waits until fewer than WINDOW messages are in the queue, then counts one
+         * more.
+         *
+         * @return True if there was room, false if the consumers did not catch up in
+         *         time.
+         */
+        boolean acquire() {
+            long deadline = 0;
+            while (this.waiting.get() >= WINDOW) {
+                if (deadline == 0) {
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MILLIS);
+                } else if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.yield();
+            }
+            this.waiting.incrementAndGet();
+            return true;
+        }
+
+        /** Counts one message fewer in the queue. */
+        void release() {
+            this.waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * A MessageQueue shared by the producers and consumers of a group.
+     */
+    @State(Scope.Group)
+    public static class Queue extends Window {
+
+        /** The capacity of the queue, or `unbounded`. */
+        @Param({ "1024", "unbounded" })
+        public String capacity;
+
+        /** The queue. */
+        private Object queue;
+
+        /** Whether the queue has a capacity. */
+        private boolean bounded;
+
+        /** Creates the queue. */
+        @Setup
+        public void setUp() throws Throwable {
+            this.bounded = !this.capacity.equals("unbounded");
+            this.queue = this.bounded ? QUEUE_NEW_BOUNDED.invokeExact(Integer.parseInt(this.capacity))
+                    : QUEUE_NEW.invokeExact();
+        }
+
+        /**
+         * Puts the message into the queue.
+         *
+         * @return True if the message was put, false if the put gave up.
+         */
+        boolean put() throws Throwable {
+            if (this.bounded) {
+                return (boolean) QUEUE_PUT_TIMED.invokeExact(this.queue, MESSAGE, TIMEOUT_MILLIS);
+            }
+            if (!this.acquire()) {
+                return false;
+            }
+            QUEUE_PUT.invokeExact(this.queue, MESSAGE);
+            return true;
+        }
+
+        /**
+         * Takes a message from the queue.
+         *
+         * @return The message, or null if the take gave up.
+         */
+        Object take() throws Throwable {
+            Object message = QUEUE_GET.invokeExact(this.queue, TIMEOUT_MILLIS);
+            if (message != null && !this.bounded) {
+                this.release();
+            }
+            return message;
+        }
+    }
+
+    /**
+     * An MpscMessageQueue shared by the producers and the consumer of a group.
+     */
+    @State(Scope.Group)
+    public static class MpscQueue extends Window {
+
+        /** The queue. */
+        private Object queue;
+
+        /** Creates the queue. */
+        @Setup
+        public void setUp() throws Throwable {
+            this.queue = MPSC_NEW.invokeExact();
+        }
+
+        /**
+         * Puts the message into the queue.
+         *
+         * @return True if the message was put, false if the put gave up.
+         */
+        boolean put() throws Throwable {
+            if (!this.acquire()) {
+                return false;
+            }
+            MPSC_PUT.invokeExact(this.queue, MESSAGE);
+            return true;
+        }
+
+        /**
+         * Takes a message from the queue.
+         *
+         * @return The message, or null if the take gave up.
+         */
+        Object take() throws Throwable {
+            Object message = MPSC_GET.invokeExact(this.queue, TIMEOUT_MILLIS);
+            if (message != null) {
+                this.release();
+            }
+            return message;
+        }
+    }
+
+    /**
+     * A SynchronizedListQueue shared by the producers and consumers of a group.
+     */
+    @State(Scope.Group)
+    public static class ListQueue extends Window {
+
+        /** The queue. */
+        private SynchronizedListQueue<Object> queue;
+
+        /** Creates the queue. */
+        @Setup
+        public void setUp() {
+            this.queue = new SynchronizedListQueue<>();
+        }
+
+        /**
+         * Puts the message into the queue.
+         *
+         * @return True if the message was put, false if the put gave up.
+         */
+        boolean put() {
+            if (!this.acquire()) {
+                return false;
+            }
+            this.queue.putMessage(MESSAGE);
+            return true;
+        }
+
+        /**
+         * Takes a message from the queue.
+         *
+         * @return The message, or null if the take gave up.
+         */
+        Object take() {
+            Object message = this.queue.getMessage(TIMEOUT_MILLIS);
+            if (message != null) {
+                this.release();
+            }
+            return message;
+        }
+    }
+
+    /** One producer to one consumer: the producer. */
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public boolean oneToOnePut(Queue queue) throws Throwable {
+        return queue.put();
+    }
+
+    /** One producer to one consumer: the consumer. */
+    @Benchmark
+    @Group("oneToOne")
+    @GroupThreads(1)
+    public Object oneToOneTake(Queue queue) throws Throwable {
+        return queue.take();
+    }
+
+    /** Four producers to one consumer: the producers. */
+    @Benchmark
+    @Group("manyToOne")
+    @GroupThreads(4)
+    public boolean manyToOnePut(Queue queue) throws Throwable {
+        return queue.put();
+    }
+
+    /** Four producers to one consumer: the consumer. */
+    @Benchmark
+    @Group("manyToOne")
+    @GroupThreads(1)
+    public Object manyToOneTake(Queue queue) throws Throwable {
+        return queue.take();
+    }
+
+    /** Four producers to four consumers: the producers. */
+    @Benchmark
+    @Group("manyToMany")
+    @GroupThreads(4)
+    public boolean manyToManyPut(Queue queue) throws Throwable {
+        return queue.put();
+    }
+
+    /** Four producers to four consumers: the consumers. */
+    @Benchmark
+    @Group("manyToMany")
+    @GroupThreads(4)
+    public Object manyToManyTake(Queue queue) throws Throwable {
+        return queue.take();
+    }
+
+    /** One producer to one consumer through an MpscMessageQueue: the producer. */
+    @Benchmark
+    @Group("mpscOneToOne")
+    @GroupThreads(1)
+    public boolean mpscOneToOnePut(MpscQueue queue) throws Throwable {
+        return queue.put();
+    }
+
+    /** One producer to one consumer through an MpscMessageQueue: the consumer. */
+    @Benchmark
+    @Group("mpscOneToOne")
+    @GroupThreads(1)
+    public Object mpscOneToOneTake(MpscQueue queue) throws Throwable {
+        return queue.take();
+    }
+
+    /** Four producers to one consumer through an MpscMessageQueue: the producers. */
+    @Benchmark
+    @Group("mpscManyToOne")
+    @GroupThreads(4)
+    public boolean mpscManyToOnePut(MpscQueue queue) throws Throwable {
+        return queue.put();
+    }
+
+    /** Four producers to one consumer through an MpscMessageQueue: the consumer. */
+    @Benchmark
+    @Group("mpscManyToOne")
+    @GroupThreads(1)
+    public Object mpscManyToOneTake(MpscQueue queue) throws Throwable {
+        return queue.take();
+    }
+
+    /** One producer to one consumer through a SynchronizedListQueue: the producer. */
+    @Benchmark
+    @Group("listOneToOne")
+    @GroupThreads(1)
+    public boolean listOneToOnePut(ListQueue queue) {
+        return queue.put();
+    }
+
+    /** One producer to one consumer through a SynchronizedListQueue: the consumer. */
+    @Benchmark
+    @Group("listOneToOne")
+    @GroupThreads(1)
+    public Object listOneToOneTake(ListQueue queue) {
+        return queue.take();
+    }
+
+    /** Four producers to one consumer through a SynchronizedListQueue: the producers. */
+    @Benchmark
+    @Group("listManyToOne")
+    @GroupThreads(4)
+    public boolean listManyToOnePut(ListQueue queue) {
+        return queue.put();
+    }
+
+    /** Four producers to one consumer through a SynchronizedListQueue: the consumer. */
+    @Benchmark
+    @Group("listManyToOne")
+    @GroupThreads(1)
+    public Object listManyToOneTake(ListQueue queue) {
+        return queue.take();
+    }
+
+    /** Four producers to four consumers through a SynchronizedListQueue: the producers. */
+    @Benchmark
+    @Group("listManyToMany")
+    @GroupThreads(4)
+    public boolean listManyToManyPut(ListQueue queue) {
+        return queue.put();
+    }
+
+    /** Four producers to four consumers through a SynchronizedListQueue: the consumers. */
+    @Benchmark
+    @Group("listManyToMany")
+    @GroupThreads(4)
+    public Object listManyToManyTake(ListQueue queue) {
+        return queue.take();
+    }
+}
@@ -0,0 +1,246 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the scheduler's decision path: choosing an elevator for a new request
+ * and recording an elevator's status update. Elevator selection is measured both
+ * with Scheduler.selectElevator, which looks at every elevator, and with the
+ * ElevatorIndex the scheduler uses, so any new dispatch policy can be compared
+ * against both. Sample time mode reports the latency percentiles of each
+ * decision, and throughput mode the decisions per second.
+ *
+ * The elevators are spread over the building the same way for every run: half
+ * going each way, some shut down and some full. The `layout` parameter chooses
+ * whether they are spread evenly over every floor, or mostly waiting at the lobby
+ * as in the morning rush.
+ *
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    /** The number of requests and updates to cycle through. Must be a power of two. */
+    private static final int SAMPLES = 1024;
+
+    /** The percentage of elevators that have shut down. */
+    private static final int SHUT_DOWN_PERCENT = 5;
+
+    /** The percentage of elevators that are full. */
+    private static final int FULL_PERCENT = 10;
+
+    /** The percentage of elevators waiting at the lobby in the morning rush. */
+    private static final int LOBBY_PERCENT = 60;
+
+    /** The ElevatorStatus class. */
+    private static final Class<?> STATUS = Handles.type("ElevatorStatus");
+
+    /** The Direction enum. */
+    private static final Class<?> DIRECTION = Handles.type("Direction");
+
+    /** Scheduler.selectElevator(ElevatorStatus[], int), the scan over every elevator. */
+    private static final MethodHandle SELECT = Handles.staticMethod("Scheduler", "selectElevator", int.class,
+            STATUS.arrayType(), int.class);
+
+    /** Scheduler.updateRecords(ElevatorStatus[], ElevatorRequest). */
+    private static final MethodHandle UPDATE_RECORDS = Handles.staticMethod("Scheduler", "updateRecords", void.class,
+            STATUS.arrayType(), Handles.type("ElevatorRequest"));
+
+    /** ElevatorIndex(ElevatorStatus[]). */
+    private static final MethodHandle INDEX_NEW = Handles.constructor("ElevatorIndex", STATUS.arrayType());
+
+    /** ElevatorIndex.select(int). */
+    private static final MethodHandle INDEX_SELECT = Handles.method("ElevatorIndex", "select", int.class, int.class);
+
+    /** ElevatorIndex.update(int). */
+    private static final MethodHandle INDEX_UPDATE = Handles.method("ElevatorIndex", "update", void.class, int.class);
+
+    /** ElevatorStatus(). */
+    private static final MethodHandle STATUS_NEW = Handles.constructor("ElevatorStatus");
+
+    /** ElevatorStatus.setElevator(int). */
+    private static final MethodHandle STATUS_SET_ELEVATOR = Handles.method("ElevatorStatus", "setElevator",
+            void.class, int.class);
+
+    /** ElevatorStatus.setFloor(int). */
+    private static final MethodHandle STATUS_SET_FLOOR = Handles.method("ElevatorStatus", "setFloor", void.class,
+            int.class);
+
+    /** ElevatorStatus.setDirection(Direction). */
+    private static final MethodHandle STATUS_SET_DIRECTION = Handles.method("ElevatorStatus", "setDirection",
+            void.class, DIRECTION);
+
+    /** ElevatorStatus.setRiders(int). */
+    private static final MethodHandle STATUS_SET_RIDERS = Handles.method("ElevatorStatus", "setRiders", void.class,
+            int.class);
+
+    /** ElevatorStatus.markShutDown(). */
+    private static final MethodHandle STATUS_SHUT_DOWN = Handles.method("ElevatorStatus", "markShutDown",
+            void.class);
+
+    /** ElevatorRequest(elevator, origin, destination, riders, door, finalDestination, initialOrigin, complete). */
+    private static final MethodHandle REQUEST_NEW = Handles.constructor("ElevatorRequest", int.class, int.class,
+            int.class, int.class, int.class, int.class, int.class, boolean.class);
+
+    /** ElevatorRequest.setDirection(Direction). */
+    private static final MethodHandle REQUEST_SET_DIRECTION = Handles.method("ElevatorRequest", "setDirection",
+            void.class, DIRECTION);
+
+    /** The number of elevators in the building. */
+    @Param({ "4", "16", "256", "1000", "10000" })
+    public int elevators;
+
+    /** How the elevators are spread over the building: `spread` or `lobby`. */
+    @Param({ "spread", "lobby" })
+    public String layout;
+
+    /** The number of floors in the building. */
+    private int floors;
+
+    /** The status record of every elevator. */
+    private Object statuses;
+
+    /** The index of the status records. */
+    private Object index;
+
+    /** The origin floors of the requests to assign. */
+    private int[] origins;
+
+    /** The status updates to record. */
+    private Object[] updates;
+
+    /** The elevator each status update comes from. */
+    private int[] updated;
+
+    /** The sample the next call uses. */
+    private int next;
+
+    /**
+     * Fills the building with elevators and makes the requests and updates to
+     * cycle through. Always uses the same seed, so every run sees the same
+     * building.
+     */
+    @Setup
+    public void setUp() throws Throwable {
+        Random random = new Random(3303);
+        this.floors = Handles.type("FloorSubsystem").getField("NUM_FLOORS").getInt(null);
+        int capacity = Handles.type("Elevator").getField("CAPACITY_LIMIT").getInt(null);
+        Object up = DIRECTION.getEnumConstants()[0];
+        Object down = DIRECTION.getEnumConstants()[1];
+
+        this.statuses = Array.newInstance(STATUS, this.elevators);
+        for (int i = 0; i < this.elevators; i++) {
+            Object status = STATUS_NEW.invokeExact();
+            STATUS_SET_ELEVATOR.invokeExact(status, i);
+            boolean lobby = this.layout.equals("lobby") && random.nextInt(100) < LOBBY_PERCENT;
+            int floor = lobby ? 1 : 1 + random.nextInt(this.floors);
+            STATUS_SET_FLOOR.invokeExact(status, floor);
+            STATUS_SET_DIRECTION.invokeExact(status, this.direction(floor, random, up, down));
+            STATUS_SET_RIDERS.invokeExact(status,
+                    random.nextInt(100) < FULL_PERCENT ? capacity : random.nextInt(capacity));
+            if (random.nextInt(100) < SHUT_DOWN_PERCENT) {
+                STATUS_SHUT_DOWN.invokeExact(status);
+            }
+            Array.set(this.statuses, i, status);
+        }
+        this.index = INDEX_NEW.invokeExact(this.statuses);
+
+        this.origins = new int[SAMPLES];
+        this.updates = new Object[SAMPLES];
+        this.updated = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            this.origins[i] = 1 + random.nextInt(this.floors);
+
+            // A status update from a random elevator on a random floor
+            int elevator = random.nextInt(this.elevators);
+            int floor = 1 + random.nextInt(this.floors);
+            Object update = REQUEST_NEW.invokeExact(elevator, floor, floor, random.nextInt(capacity + 1), 0, 0, 0,
+                    false);
+            REQUEST_SET_DIRECTION.invokeExact(update, this.direction(floor, random, up, down));
+            this.updates[i] = update;
+            this.updated[i] = elevator;
+        }
+    }
+
+    /**
+     * Picks a direction an elevator on a floor could be going in.
+     *
+     * @param floor  The elevator's floor.
+     * @param random The source of randomness.
+     * @param up     Direction.Up.
+     * @param down   Direction.Down.
+     * @return Up or down, whichever is possible, or either at random.
+     */
+    private Object direction(int floor, Random random, Object up, Object down) {
+        if (floor == 1) {
+            return up;
+        }
+        if (floor == this.floors) {
+            return down;
+        }
+        return random.nextBoolean() ? up : down;
+    }
+
+    /**
+     * Gets the next sample to use.
+     *
+     * @return The index of the sample.
+     */
+    private int nextSample() {
+        this.next = (this.next + 1) & (SAMPLES - 1);
+        return this.next;
+    }
+
+    /** Chooses an elevator by looking at every elevator, as Scheduler.selectElevator does. */
+    @Benchmark
+    public int selectLinearScan() throws Throwable {
+        return (int) SELECT.invokeExact(this.statuses, this.origins[this.nextSample()]);
+    }
+
+    /** Chooses an elevator through the ElevatorIndex, as the scheduler pipeline does. */
+    @Benchmark
+    public int selectIndexed() throws Throwable {
+        return (int) INDEX_SELECT.invokeExact(this.index, this.origins[this.nextSample()]);
+    }
+
+    /** Records an elevator's status update. */
+    @Benchmark
+    public Object updateRecords() throws Throwable {
+        UPDATE_RECORDS.invokeExact(this.statuses, this.updates[this.nextSample()]);
+        return this.statuses;
+    }
+
+    /** Records an elevator's status update and re-files it in the index, as the scheduler pipeline does. */
+    @Benchmark
+    public Object updateRecordsIndexed() throws Throwable {
+        int sample = this.nextSample();
+        UPDATE_RECORDS.invokeExact(this.statuses, this.updates[sample]);
+        INDEX_UPDATE.invokeExact(this.index, this.updated[sample]);
+        return this.index;
+    }
+}
@@ -0,0 +1,94 @@
+package bench;
+
+import java.util.ArrayList;
+
+/**
+ * The original MessageQueue, an ArrayList guarded by the queue's monitor, kept as
+ * the baseline that MessageQueueBenchmark compares the current queues against.
+ * Apart from the name, the only change is getMessage(long), which gives up after
+ * a timeout so the benchmark threads can stop at the end of each iteration.
+ *
+ * @author Saja Fawagreh, 101217326
+ * @author Javeria Sohail, 101197163
+ * @author Matteo Golin, 101220709
+ * @author Grant Achuzia, 101222695
+ * @author Yousef Hammad, 101217858
+ * @version 0.0.0
+ */
+public class SynchronizedListQueue<T> {
+
+    /**
+     * Queue for messages.
+     */
+    private ArrayList<T> messages;
+
+    /**
+     * Constructor for the SynchronizedListQueue class. Initializes the queue.
+     */
+    public SynchronizedListQueue() {
+        this.messages = new ArrayList<T>();
+    }
+
+    /**
+     * Puts a message into the queue.
+     *
+     * @param message The message to be added to the queue.
+     */
+    public synchronized void putMessage(T message) {
+        this.messages.add(message);
+        notifyAll();
+    }
+
+    /**
+     * Retrieves a message from the queue.
+     * Waits if the queue is empty until a message is available.
+     *
+     * @return The first message from the queue.
+     */
+    public synchronized T getMessage() {
+        while (this.messages.isEmpty()) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+
+        notifyAll();
+        return this.messages.removeFirst();
+    }
+
+    /**
+     * Retrieves a message from the queue, waiting at most the given time for one
+     * to become available.
+     *
+     * @param timeoutMillis The longest time to wait in milliseconds.
+     * @return The first message from the queue, or null if none arrived in time.
+     */
+    public synchronized T getMessage(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (this.messages.isEmpty()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return null;
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+
+        notifyAll();
+        return this.messages.removeFirst();
+    }
+
+    /**
+     * Checks if the message queue is empty.
+     *
+     * @return True if empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.messages.isEmpty();
+    }
+}